@@ -0,0 +1,44 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.enums.Phase;
+import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.mapper.UserMapperImpl;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Маппинг без контекста Spring и базы: измеряется только построение BookingDto
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BookingMapperBenchmark {
+    private final BookingMapper bookingMapper = new BookingMapper(new ItemMapper(), new UserMapperImpl());
+
+    private Booking booking;
+
+    @Setup
+    public void setUp() {
+        User owner = new User(1L, "Owner", "owner@mail.com");
+        User booker = new User(2L, "Booker", "booker@mail.com");
+        Item item = new Item(1L, "Drill", "Good drill for rent", true, owner);
+        LocalDateTime start = LocalDateTime.now();
+        booking = new Booking(1L, start, start.plusDays(1), item, booker, Status.APPROVED, Phase.CURRENT);
+    }
+
+    @Benchmark
+    public BookingDto toBookingDto() {
+        return bookingMapper.toBookingDto(booking);
+    }
+}
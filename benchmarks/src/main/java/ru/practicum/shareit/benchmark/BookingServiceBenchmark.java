@@ -0,0 +1,35 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.enums.State;
+import ru.practicum.shareit.booking.service.BookingService;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@org.openjdk.jmh.annotations.State(Scope.Benchmark)
+public class BookingServiceBenchmark {
+    @Param({"ALL", "PAST", "FUTURE"})
+    public State state;
+
+    @Param("20")
+    public int size;
+
+    private BookingService bookingService;
+
+    @Setup(Level.Trial)
+    public void setUp(SeededDataset dataset) {
+        bookingService = dataset.getBean(BookingService.class);
+    }
+
+    @Benchmark
+    public List<BookingDto> getBookingsForOwner(SeededDataset dataset) {
+        return bookingService.getBookingsForOwner(dataset.itemOwnerIds[dataset.nextItem()], state, null, null, size);
+    }
+}
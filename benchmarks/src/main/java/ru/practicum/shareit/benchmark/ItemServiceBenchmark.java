@@ -0,0 +1,49 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.item.dto.ItemByIdDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ItemServiceBenchmark {
+    @Param({"drill", "ra"})
+    public String text;
+
+    private ItemService itemService;
+    private LocalDateTime windowStart;
+
+    @Setup(Level.Trial)
+    public void setUp(SeededDataset dataset) {
+        itemService = dataset.getBean(ItemService.class);
+        windowStart = LocalDateTime.now().plusDays(3);
+    }
+
+    @Benchmark
+    public List<ItemDto> searchItems() {
+        return itemService.searchItems(text, null, null);
+    }
+
+    /**
+     * Поиск только свободных на выходные вещей: те же кандидаты плюс анти-соединение с бронированиями
+     */
+    @Benchmark
+    public List<ItemDto> searchItemsFreeInWindow() {
+        return itemService.searchItems(text, windowStart, windowStart.plusDays(2));
+    }
+
+    @Benchmark
+    public ItemByIdDto getItemByIdForOwner(SeededDataset dataset) {
+        int item = dataset.nextItem();
+        return itemService.getItemById(dataset.itemIds[item], dataset.itemOwnerIds[item]);
+    }
+}
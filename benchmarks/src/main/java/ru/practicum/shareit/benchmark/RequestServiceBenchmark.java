@@ -0,0 +1,31 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.request.dto.RequestDto;
+import ru.practicum.shareit.request.service.RequestService;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RequestServiceBenchmark {
+    @Param("20")
+    public int size;
+
+    private RequestService requestService;
+
+    @Setup(Level.Trial)
+    public void setUp(SeededDataset dataset) {
+        requestService = dataset.getBean(RequestService.class);
+    }
+
+    @Benchmark
+    public List<RequestDto> getAllRequests(SeededDataset dataset) {
+        return requestService.getAllRequests(dataset.itemOwnerIds[dataset.nextItem()], null, null, size);
+    }
+}
@@ -0,0 +1,152 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.booking.enums.Phase;
+import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.booking.lifecycle.BookingLifecycleScheduler;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.availability.ItemAvailabilityIndex;
+import ru.practicum.shareit.item.comment.model.Comment;
+import ru.practicum.shareit.item.comment.repository.CommentRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.pointer.ItemBookingPointers;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.request.model.Request;
+import ru.practicum.shareit.request.repository.RequestRepository;
+import ru.practicum.shareit.request.suggestion.RequestMatchIndex;
+import ru.practicum.shareit.user.email.EmailFilter;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Сервер с H2 в памяти, заполненный данными заданного размера.
+ * Размер набора меняется параметрами JMH, например -p users=1000 -p bookingsPerItem=100
+ */
+@State(Scope.Benchmark)
+public class SeededDataset {
+    static final String[] WORDS = {"drill", "hammer", "ladder", "tent", "bicycle", "camera", "projector", "kayak"};
+
+    @Param("100")
+    public int users;
+
+    @Param("10")
+    public int itemsPerUser;
+
+    @Param("10")
+    public int bookingsPerItem;
+
+    @Param("2")
+    public int commentsPerItem;
+
+    long[] itemIds;
+    long[] itemOwnerIds;
+
+    private ConfigurableApplicationContext context;
+    private final AtomicInteger cursor = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ShareItServer.class)
+                .web(webApplicationType())
+                .run(arguments().toArray(String[]::new));
+        seed();
+        getBean(ItemSearchIndex.class).rebuild();
+        getBean(RequestMatchIndex.class).rebuild();
+        getBean(EmailFilter.class).rebuild();
+        getBean(BookingLifecycleScheduler.class).rebuild();
+        getBean(ItemAvailabilityIndex.class).rebuild();
+        getBean(ItemBookingPointers.class).reconcile();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    protected WebApplicationType webApplicationType() {
+        return WebApplicationType.NONE;
+    }
+
+    protected List<String> arguments() {
+        return new ArrayList<>(List.of(
+                "--spring.datasource.driverClassName=org.h2.Driver",
+                "--spring.datasource.url=jdbc:h2:mem:shareit-benchmarks",
+                "--logging.level.ru.practicum.shareit=WARN",
+                "--logging.level.org.springframework=WARN"));
+    }
+
+    ConfigurableApplicationContext getContext() {
+        return context;
+    }
+
+    <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    /**
+     * Следующая по кругу вещь, чтобы итерации не читали одну и ту же строку
+     */
+    int nextItem() {
+        return Math.floorMod(cursor.incrementAndGet(), itemIds.length);
+    }
+
+    private void seed() {
+        List<User> savedUsers = new ArrayList<>(users);
+        for (int i = 0; i < users; i++) {
+            savedUsers.add(new User(null, "User " + i, "user" + i + "@mail.com"));
+        }
+        savedUsers = getBean(UserRepository.class).saveAll(savedUsers);
+
+        List<Request> requests = new ArrayList<>(users);
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < users; i++) {
+            requests.add(new Request(null, "Need a " + WORDS[i % WORDS.length], savedUsers.get(i), now.minusHours(i)));
+        }
+        getBean(RequestRepository.class).saveAll(requests);
+
+        List<Item> items = new ArrayList<>(users * itemsPerUser);
+        for (User owner : savedUsers) {
+            for (int i = 0; i < itemsPerUser; i++) {
+                String word = WORDS[(items.size() + i) % WORDS.length];
+                items.add(new Item(null, word + " " + items.size(), "Good " + word + " for rent", true, owner));
+            }
+        }
+        items = getBean(ItemRepository.class).saveAll(items);
+
+        List<Booking> bookings = new ArrayList<>(items.size() * bookingsPerItem);
+        List<Comment> comments = new ArrayList<>(items.size() * commentsPerItem);
+        for (int i = 0; i < items.size(); i++) {
+            Item item = items.get(i);
+            User booker = savedUsers.get((i + 1) % savedUsers.size());
+            for (int j = 0; j < bookingsPerItem; j++) {
+                LocalDateTime start = now.plusDays(2L * (j - bookingsPerItem / 2));
+                bookings.add(new Booking(null, start, start.plusDays(1), item, booker, Status.APPROVED,
+                        Phase.at(start, start.plusDays(1), now)));
+            }
+            for (int j = 0; j < commentsPerItem; j++) {
+                comments.add(new Comment(null, "Comment " + j, item, booker, now.minusDays(j)));
+            }
+        }
+        getBean(BookingRepository.class).saveAll(bookings);
+        getBean(CommentRepository.class).saveAll(comments);
+
+        itemIds = items.stream().mapToLong(Item::getId).toArray();
+        itemOwnerIds = items.stream().mapToLong(item -> item.getOwner().getId()).toArray();
+    }
+}
@@ -0,0 +1,67 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сервер на платформенных и виртуальных потоках под 1024 одновременными соединениями.
+ * Клиент HTTP/1.1 открывает отдельное соединение на каждый поток JMH, каждый поток запрашивает вещь с бронированиями и комментариями от имени владельца
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(1024)
+@Fork(1)
+public class ServerThreadsBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class HttpServerDataset extends SeededDataset {
+        @Param({"false", "true"})
+        public boolean virtualThreads;
+
+        private String serverUrl;
+        private HttpClient httpClient;
+
+        @Setup(Level.Trial)
+        public void startClient() {
+            serverUrl = "http://localhost:" + getContext().getEnvironment().getProperty("local.server.port");
+            httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        }
+
+        @TearDown(Level.Trial)
+        public void stopClient() {
+            httpClient.close();
+        }
+
+        @Override
+        protected WebApplicationType webApplicationType() {
+            return WebApplicationType.SERVLET;
+        }
+
+        @Override
+        protected List<String> arguments() {
+            List<String> arguments = super.arguments();
+            arguments.add("--server.port=0");
+            arguments.add("--spring.threads.virtual.enabled=" + virtualThreads);
+            return arguments;
+        }
+    }
+
+    @Benchmark
+    public int getItemByIdForOwner(HttpServerDataset dataset) throws IOException, InterruptedException {
+        int item = dataset.nextItem();
+        HttpRequest request = HttpRequest.newBuilder(URI.create(dataset.serverUrl + "/items/" + dataset.itemIds[item]))
+                .header("X-Sharer-User-Id", String.valueOf(dataset.itemOwnerIds[item]))
+                .build();
+        return dataset.httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
@@ -0,0 +1,47 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Запускает методы ServiceLog из ServiceLoggingBenchmark с профилировщиком gc и завершается с ошибкой,
+ * если хотя бы один из них выделяет память. Порог в 1 B/op отсекает погрешность измерения:
+ * любое реальное выделение, например упаковка одного long, занимает не меньше 16 байт
+ */
+public final class ServiceLoggingAllocationCheck {
+    private static final String ALLOCATION = "gc.alloc.rate.norm";
+    private static final double MAX_BYTES_PER_OP = 1.0;
+
+    private ServiceLoggingAllocationCheck() {
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(ServiceLoggingBenchmark.class.getName() + ".serviceLog")
+                .addProfiler(GCProfiler.class)
+                .build();
+
+        List<String> failures = new ArrayList<>();
+        for (RunResult result : new Runner(options).run()) {
+            String benchmark = result.getParams().getBenchmark();
+            Result<?> allocation = result.getSecondaryResults().get(ALLOCATION);
+            if (allocation == null) {
+                throw new IllegalStateException("Профилировщик gc не вернул " + ALLOCATION + " для " + benchmark);
+            }
+            if (allocation.getScore() >= MAX_BYTES_PER_OP) {
+                failures.add(benchmark + ": " + allocation.getScore() + " B/op");
+            }
+        }
+        if (!failures.isEmpty()) {
+            throw new IllegalStateException("ServiceLog выделяет память при выключенном DEBUG: " + failures);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package ru.practicum.shareit.benchmark;
+
+import ch.qos.logback.classic.Level;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.impl.ItemServiceImpl;
+import ru.practicum.shareit.logging.ServiceLog;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Отладочный лог сервисов при выключенном DEBUG, как в профиле prod. Запускать с профилировщиком памяти,
+ * например -Djmh.args="-prof gc ServiceLoggingBenchmark": у методов ServiceLog gc.alloc.rate.norm должен быть 0 B/op,
+ * прямые вызовы log.debug с тремя и более аргументами показаны для сравнения. Числовые аргументы хранятся
+ * примитивами и упаковываются в месте вызова, как в сервисах. Проверку нуля выполняет ServiceLoggingAllocationCheck
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ServiceLoggingBenchmark {
+    private static final Logger log = LoggerFactory.getLogger(ItemServiceImpl.class);
+
+    @Param("100")
+    public int items;
+
+    private long ownerId;
+    private long after;
+    private int size;
+    private ItemDto item;
+    private List<ItemDto> foundItems;
+
+    @Setup
+    public void setUp() {
+        ((ch.qos.logback.classic.Logger) log).setLevel(Level.INFO);
+        ownerId = 1000;
+        after = 5000;
+        size = 20;
+        foundItems = new ArrayList<>(items);
+        for (long id = 0; id < items; id++) {
+            foundItems.add(new ItemDto(id, "Drill " + id, "Good drill for rent", true, null));
+        }
+        item = foundItems.getFirst();
+    }
+
+    @Benchmark
+    public void serviceLogArguments() {
+        ServiceLog.debug(log, "Обработка запроса на получение информации о вещах пользователя с id: {}, после вещи: {}, размер страницы: {}",
+                ownerId, after, size);
+    }
+
+    @Benchmark
+    public void serviceLogDto() {
+        ServiceLog.debug(log, "Вещь успешно создана: {}", item);
+    }
+
+    @Benchmark
+    public void serviceLogList() {
+        ServiceLog.debugList(log, "Для владельца с id: {} найдено вещей: {}. Список: {}", ownerId, foundItems);
+    }
+
+    @Benchmark
+    public void plainLogList() {
+        log.debug("Для владельца с id: {} найдено вещей: {}. Список: {}", ownerId, foundItems.size(), foundItems);
+    }
+}
@@ -0,0 +1,81 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import ru.practicum.shareit.metrics.SqlCountingDataSource;
+import ru.practicum.shareit.metrics.SqlStatistics;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Накладные расходы подсчёта SQL (shareit.metrics.sql-counting.enabled): один запрос к H2 в памяти с чтением
+ * всех строк и колонок напрямую через источник данных (dataSource=plain) и через SqlCountingDataSource (dataSource=counting).
+ * Статистика запроса запущена, как в обработке HTTP-запроса, поэтому счётчики действительно увеличиваются
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SqlCountingBenchmark {
+    private static final String QUERY = "SELECT id, name, description, available FROM items ORDER BY id";
+
+    @Param({"plain", "counting"})
+    public String dataSource;
+
+    @Param("100")
+    public int rows;
+
+    private Connection connection;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        DataSource plain = new DriverManagerDataSource("jdbc:h2:mem:sql-counting;DB_CLOSE_DELAY=-1", "sa", "");
+        try (Connection init = plain.getConnection(); Statement statement = init.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS items");
+            statement.execute("CREATE TABLE items (id BIGINT PRIMARY KEY, name VARCHAR(255), "
+                    + "description VARCHAR(512), available BOOLEAN)");
+            for (int id = 0; id < rows; id++) {
+                statement.execute("INSERT INTO items VALUES (" + id + ", 'Drill " + id + "', 'Good drill for rent', TRUE)");
+            }
+        }
+        connection = (dataSource.equals("counting") ? new SqlCountingDataSource(plain) : plain).getConnection();
+    }
+
+    @Setup(Level.Iteration)
+    public void startStatistics() {
+        SqlStatistics.start();
+    }
+
+    @TearDown(Level.Iteration)
+    public void stopStatistics() {
+        SqlStatistics.stop();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public long readAllRows() throws SQLException {
+        long checksum = 0;
+        try (PreparedStatement statement = connection.prepareStatement(QUERY);
+             ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                checksum += resultSet.getLong(1);
+                checksum += resultSet.getString(2).length();
+                checksum += resultSet.getString(3).length();
+                checksum += resultSet.getBoolean(4) ? 1 : 0;
+            }
+        }
+        return checksum;
+    }
+}
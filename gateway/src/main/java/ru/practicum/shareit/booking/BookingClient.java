@@ -1,15 +1,21 @@
 package ru.practicum.shareit.booking;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.booking.dto.CreateBookingDto;
 import ru.practicum.shareit.booking.enums.State;
 import ru.practicum.shareit.client.BaseClient;
 
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Component
@@ -17,9 +23,13 @@ public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                         @Qualifier("serverStreamRestTemplateBuilder") RestTemplateBuilder streamBuilder) {
         super(
                 builder
+                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
+                        .build(),
+                streamBuilder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
                         .build()
         );
@@ -29,21 +39,42 @@ public class BookingClient extends BaseClient {
         return post("", userId, createBookingDto);
     }
 
+    public ResponseEntity<Object> createBookings(Long userId, List<CreateBookingDto> createBookingDtos) {
+        return post("/batch", userId, createBookingDtos);
+    }
+
+    public ResponseEntity<Object> updateBookings(List<Long> bookingIds, boolean approved, long userId) {
+        return patch("/batch?approved=" + approved, userId, bookingIds);
+    }
+
     public ResponseEntity<Object> updateBooking(long bookingId, boolean approved, long userId) {
         return patch("/" + bookingId + "?approved=" + approved, userId);
     }
 
+    public ResponseEntity<StreamingResponseBody> subscribe(Long userId) {
+        return stream("/events", userId, MediaType.TEXT_EVENT_STREAM);
+    }
+
     public ResponseEntity<Object> getBooking(Long bookingId, Long userId) {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> getAllBookings(Long userId, State state) {
-        Map<String, Object> parameters = Map.of("state", state);
-        return get("?state={state}", userId, parameters);
+    public ResponseEntity<Object> getAllBookings(Long userId, State state, LocalDateTime afterStart, Long afterId, int size) {
+        Map<String, Object> parameters = new HashMap<>(Map.of("state", state, "size", size));
+        return get("?state={state}&size={size}" + keysetQuery(parameters, afterStart, afterId), userId, parameters);
+    }
+
+    public ResponseEntity<Object> getBookingsForOwner(Long userId, State state, LocalDateTime afterStart, Long afterId, int size) {
+        Map<String, Object> parameters = new HashMap<>(Map.of("state", state, "size", size));
+        return get("/owner?state={state}&size={size}" + keysetQuery(parameters, afterStart, afterId), userId, parameters);
     }
 
-    public ResponseEntity<Object> getBookingsForOwner(Long userId, State state) {
-        Map<String, Object> parameters = Map.of("state", state);
-        return get("/owner?state={state}", userId, parameters);
+    private static String keysetQuery(Map<String, Object> parameters, LocalDateTime afterStart, Long afterId) {
+        if (afterStart == null || afterId == null) {
+            return "";
+        }
+        parameters.put("afterStart", afterStart);
+        parameters.put("afterId", afterId);
+        return "&afterStart={afterStart}&afterId={afterId}";
     }
 }
\ No newline at end of file
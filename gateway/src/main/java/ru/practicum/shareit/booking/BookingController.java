@@ -1,14 +1,24 @@
 package ru.practicum.shareit.booking;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.booking.dto.CreateBookingDto;
 import ru.practicum.shareit.booking.enums.State;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 @Slf4j
 @RestController
 @AllArgsConstructor
@@ -22,12 +32,33 @@ public class BookingController {
         return bookingClient.createBooking(userId, createBookingDto);
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<Object> createBookings(@RequestBody @NotEmpty @Size(max = 100) List<@Valid CreateBookingDto> createBookingDtos,
+                                                 @RequestHeader("X-Sharer-User-Id") Long userId) {
+        log.debug("Запрос на пакетное добавление бронирований: {} пользователем: {}", createBookingDtos.size(), userId);
+        return bookingClient.createBookings(userId, createBookingDtos);
+    }
+
+    @PatchMapping("/batch")
+    public ResponseEntity<Object> updateBookings(@RequestBody @NotEmpty @Size(max = 100) List<@NotNull Long> bookingIds,
+                                                 @RequestParam @NotNull boolean approved,
+                                                 @RequestHeader("X-Sharer-User-Id") Long userId) {
+        log.debug("Запрос на пакетную обработку запросов на бронирование: {} пользователем: {}", bookingIds, userId);
+        return bookingClient.updateBookings(bookingIds, approved, userId);
+    }
+
     @PatchMapping("/{bookingId}")
     public ResponseEntity<Object> updateBooking(@PathVariable Long bookingId, @RequestParam @NotNull boolean approved, @RequestHeader("X-Sharer-User-Id") Long userId) {
         log.debug("Запрос на обработку запроса на бронирование: {} пользователем: {}", bookingId, userId);
         return bookingClient.updateBooking(bookingId, approved, userId);
     }
 
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<StreamingResponseBody> subscribeToBookingEvents(@RequestHeader("X-Sharer-User-Id") Long userId) {
+        log.debug("Запрос на подписку на события бронирований пользователем: {}", userId);
+        return bookingClient.subscribe(userId);
+    }
+
     @GetMapping("/{bookingId}")
     public ResponseEntity<Object> getBooking(@PathVariable Long bookingId, @RequestHeader("X-Sharer-User-Id") Long userId) {
         log.debug("Запрос на получение данных о конкретном бронировании: {}", bookingId);
@@ -35,14 +66,22 @@ public class BookingController {
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAllBookings(@RequestParam(defaultValue = "ALL") State state, @RequestHeader("X-Sharer-User-Id") Long userId) {
+    public ResponseEntity<Object> getAllBookings(@RequestParam(defaultValue = "ALL") State state,
+                                                 @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime afterStart,
+                                                 @RequestParam(required = false) Long afterId,
+                                                 @RequestParam(defaultValue = "20") @Positive @Max(100) int size,
+                                                 @RequestHeader("X-Sharer-User-Id") Long userId) {
         log.debug("Запрос на получение списка всех бронирований пользователя: {}", userId);
-        return bookingClient.getAllBookings(userId, state);
+        return bookingClient.getAllBookings(userId, state, afterStart, afterId, size);
     }
 
     @GetMapping("/owner")
-    public ResponseEntity<Object> getBookingsForOwner(@RequestParam(defaultValue = "ALL") State state, @RequestHeader("X-Sharer-User-Id") Long userId) {
+    public ResponseEntity<Object> getBookingsForOwner(@RequestParam(defaultValue = "ALL") State state,
+                                                      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime afterStart,
+                                                      @RequestParam(required = false) Long afterId,
+                                                      @RequestParam(defaultValue = "20") @Positive @Max(100) int size,
+                                                      @RequestHeader("X-Sharer-User-Id") Long userId) {
         log.debug("Запрос на получение списка бронирований для всех вещей пользователя: {}", userId);
-        return bookingClient.getBookingsForOwner(userId, state);
+        return bookingClient.getBookingsForOwner(userId, state, afterStart, afterId, size);
     }
 }
\ No newline at end of file
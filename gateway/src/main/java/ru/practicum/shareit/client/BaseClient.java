@@ -1,18 +1,41 @@
 package ru.practicum.shareit.client;
 
+import org.springframework.core.io.InputStreamResource;
 import org.springframework.http.*;
+import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.lang.Nullable;
-import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RestClient;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
 
+/**
+ * Проксирование запросов на сервер. Тело ответа сервера передаётся клиенту как есть, потоком,
+ * без разбора JSON в дерево объектов, повторной сериализации и накопления в памяти шлюза
+ */
 public class BaseClient {
+    private static final int STREAM_BUFFER_SIZE = 8192;
+
     protected final RestTemplate rest;
+    private final RestClient client;
+    private final RestClient streamClient;
 
     public BaseClient(RestTemplate rest) {
+        this(rest, rest);
+    }
+
+    /**
+     * streamRest используется только для потоковых ответов (stream) и должен работать на отдельном пуле соединений
+     */
+    public BaseClient(RestTemplate rest, RestTemplate streamRest) {
         this.rest = rest;
+        this.client = RestClient.create(rest);
+        this.streamClient = RestClient.create(streamRest);
     }
 
     protected ResponseEntity<Object> get(String path) {
@@ -75,20 +98,56 @@ public class BaseClient {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
+    protected ResponseEntity<StreamingResponseBody> stream(String path, MediaType mediaType) {
+        return stream(path, null, mediaType);
+    }
+
+    /**
+     * Потоковое проксирование GET-запроса. Запрос к серверу выполняется сразу, поэтому статус ответа сервера,
+     * в том числе ошибка, передаётся клиенту до того, как ответ шлюза зафиксирован. Тело копируется клиенту
+     * по мере чтения и не накапливается в памяти шлюза. Каждый прочитанный фрагмент сразу сбрасывается клиенту,
+     * чтобы редкие события не задерживались в буфере
+     */
+    protected ResponseEntity<StreamingResponseBody> stream(String path, @Nullable Long userId, MediaType mediaType) {
+        return streamClient.get()
+                .uri(path)
+                .accept(mediaType)
+                .headers(headers -> {
+                    if (userId != null) {
+                        headers.set("X-Sharer-User-Id", String.valueOf(userId));
+                    }
+                })
+                .exchange((request, response) -> {
+                    MediaType contentType = response.getHeaders().getContentType();
+                    StreamingResponseBody body = out -> {
+                        try (response; InputStream in = response.getBody()) {
+                            byte[] buffer = new byte[STREAM_BUFFER_SIZE];
+                            int read;
+                            while ((read = in.read(buffer)) != -1) {
+                                out.write(buffer, 0, read);
+                                out.flush();
+                            }
+                        }
+                    };
+                    return ResponseEntity.status(response.getStatusCode())
+                            .contentType(contentType != null ? contentType : mediaType)
+                            .body(body);
+                }, false);
+    }
+
+    /**
+     * Запрос к серверу выполняется сразу, статус и заголовки содержимого ответа передаются клиенту как есть,
+     * в том числе для ошибок. Ответ сервера остаётся открытым: тело копируется клиенту при записи ответа шлюза,
+     * после чего соединение возвращается в пул
+     */
     private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
-        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
-
-        ResponseEntity<Object> shareitServerResponse;
-        try {
-            if (parameters != null) {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
-            } else {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
-            }
-        } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
+        RestClient.RequestBodySpec request = client.method(method)
+                .uri(path, parameters != null ? parameters : Map.of())
+                .headers(headers -> headers.addAll(defaultHeaders(userId)));
+        if (body != null) {
+            request.body(body);
         }
-        return prepareGatewayResponse(shareitServerResponse);
+        return request.exchange((clientRequest, response) -> prepareGatewayResponse(response), false);
     }
 
     private HttpHeaders defaultHeaders(Long userId) {
@@ -101,17 +160,42 @@ public class BaseClient {
         return headers;
     }
 
-    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
-        if (response.getStatusCode().is2xxSuccessful()) {
-            return response;
+    private static ResponseEntity<Object> prepareGatewayResponse(ClientHttpResponse response) throws IOException {
+        HttpHeaders serverHeaders = response.getHeaders();
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode())
+                .headers(passthroughHeaders(serverHeaders));
+
+        if (response.getStatusCode().isSameCodeAs(HttpStatus.NO_CONTENT) || serverHeaders.getContentLength() == 0
+                || serverHeaders.getContentType() == null) {
+            response.close();
+            return responseBuilder.build();
         }
 
-        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
+        InputStream body = new FilterInputStream(response.getBody()) {
+            @Override
+            public void close() throws IOException {
+                try {
+                    super.close();
+                } finally {
+                    response.close();
+                }
+            }
+        };
+        return responseBuilder.body(new InputStreamResource(body));
+    }
 
-        if (response.hasBody()) {
-            return responseBuilder.body(response.getBody());
+    /**
+     * Заголовки ответа сервера, которые нужны клиенту для разбора тела: тип и, если известна, длина.
+     * Без длины тело уходит клиенту частями
+     */
+    private static HttpHeaders passthroughHeaders(HttpHeaders serverHeaders) {
+        HttpHeaders headers = new HttpHeaders();
+        if (serverHeaders.getContentType() != null) {
+            headers.setContentType(serverHeaders.getContentType());
         }
-
-        return responseBuilder.build();
+        if (serverHeaders.getContentLength() >= 0) {
+            headers.setContentLength(serverHeaders.getContentLength());
+        }
+        return headers;
     }
 }
@@ -0,0 +1,105 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.web.client.RestTemplateBuilderConfigurer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+
+/**
+ * Общий пул keep-alive соединений для всех клиентов сервера (наследников BaseClient).
+ * Потоковые ответы (подписки на события, выгрузки) держат соединение десятки минут, поэтому ходят
+ * через отдельный пул со своим лимитом и не отнимают соединения у обычных запросов
+ */
+@Configuration
+@EnableConfigurationProperties(ServerHttpProperties.class)
+public class ServerHttpClientConfig {
+
+    @Bean
+    public PoolingHttpClientConnectionManager serverConnectionManager(ServerHttpProperties properties) {
+        return connectionManager(properties.getMaxConnections(), properties.getMaxConnectionsPerRoute(), properties);
+    }
+
+    @Bean
+    public PoolingHttpClientConnectionManager serverStreamConnectionManager(ServerHttpProperties properties) {
+        return connectionManager(properties.getMaxStreamConnections(), properties.getMaxStreamConnections(), properties);
+    }
+
+    @Bean
+    public CloseableHttpClient serverHttpClient(@Qualifier("serverConnectionManager") PoolingHttpClientConnectionManager connectionManager,
+                                                ServerHttpProperties properties) {
+        return httpClient(connectionManager, properties);
+    }
+
+    @Bean
+    public CloseableHttpClient serverStreamHttpClient(@Qualifier("serverStreamConnectionManager") PoolingHttpClientConnectionManager connectionManager,
+                                                      ServerHttpProperties properties) {
+        return httpClient(connectionManager, properties);
+    }
+
+    @Bean
+    @Primary
+    public RestTemplateBuilder restTemplateBuilder(RestTemplateBuilderConfigurer configurer,
+                                                   @Qualifier("serverHttpClient") CloseableHttpClient httpClient) {
+        return configurer.configure(new RestTemplateBuilder())
+                .requestFactory(() -> new HttpComponentsClientHttpRequestFactory(httpClient));
+    }
+
+    /**
+     * Построитель RestTemplate для потоковых ответов сервера (BaseClient.stream)
+     */
+    @Bean
+    public RestTemplateBuilder serverStreamRestTemplateBuilder(RestTemplateBuilderConfigurer configurer,
+                                                               @Qualifier("serverStreamHttpClient") CloseableHttpClient httpClient) {
+        return configurer.configure(new RestTemplateBuilder())
+                .requestFactory(() -> new HttpComponentsClientHttpRequestFactory(httpClient));
+    }
+
+    @Bean
+    public MeterBinder serverConnectionPoolMetrics(@Qualifier("serverConnectionManager") PoolingHttpClientConnectionManager connectionManager) {
+        return new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "shareit-server");
+    }
+
+    @Bean
+    public MeterBinder serverStreamConnectionPoolMetrics(@Qualifier("serverStreamConnectionManager") PoolingHttpClientConnectionManager connectionManager) {
+        return new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "shareit-server-stream");
+    }
+
+    private static PoolingHttpClientConnectionManager connectionManager(int maxConnections, int maxConnectionsPerRoute,
+                                                                        ServerHttpProperties properties) {
+        return PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnectionsPerRoute)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(properties.getConnectTimeout()))
+                        .setSocketTimeout(Timeout.of(properties.getReadTimeout()))
+                        .setTimeToLive(TimeValue.of(properties.getTimeToLive()))
+                        .build())
+                .build();
+    }
+
+    private static CloseableHttpClient httpClient(PoolingHttpClientConnectionManager connectionManager, ServerHttpProperties properties) {
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.of(properties.getConnectionRequestTimeout()))
+                        .setResponseTimeout(Timeout.of(properties.getReadTimeout()))
+                        .build())
+                .evictIdleConnections(TimeValue.of(properties.getIdleTimeout()))
+                .evictExpiredConnections()
+                .build();
+    }
+}
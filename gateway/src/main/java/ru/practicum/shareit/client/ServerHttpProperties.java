@@ -0,0 +1,62 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки пула HTTP-соединений шлюза с сервером
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-server.http")
+public class ServerHttpProperties {
+    /**
+     * Максимальное число соединений в пуле
+     */
+    private int maxConnections = 200;
+
+    /**
+     * Максимальное число соединений к одному хосту. Шлюз ходит только на сервер, поэтому по умолчанию равно общему лимиту
+     */
+    private int maxConnectionsPerRoute = 200;
+
+    /**
+     * Максимальное число соединений в отдельном пуле потоковых ответов: каждая подписка на события
+     * занимает соединение на всё время подписки
+     */
+    private int maxStreamConnections = 100;
+
+    /**
+     * Время установки соединения
+     */
+    private Duration connectTimeout = Duration.ofSeconds(2);
+
+    /**
+     * Время ожидания ответа сервера
+     */
+    private Duration readTimeout = Duration.ofSeconds(30);
+
+    /**
+     * Время ожидания свободного соединения в пуле
+     */
+    private Duration connectionRequestTimeout = Duration.ofSeconds(2);
+
+    /**
+     * Простаивающие дольше соединения закрываются фоновым потоком пула
+     */
+    private Duration idleTimeout = Duration.ofSeconds(30);
+
+    /**
+     * Максимальное время жизни соединения
+     */
+    private Duration timeToLive = Duration.ofMinutes(5);
+
+    /**
+     * Максимальная длительность потокового ответа (выгрузки, подписки на события).
+     * Должна превышать время жизни подписки на сервере, чтобы поток закрывал сервер, а не шлюз
+     */
+    private Duration streamTimeout = Duration.ofMinutes(35);
+}
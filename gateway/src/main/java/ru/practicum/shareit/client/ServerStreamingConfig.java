@@ -0,0 +1,27 @@
+package ru.practicum.shareit.client;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Потоковые ответы шлюза (StreamingResponseBody) выполняются на виртуальных потоках: подписка на события
+ * держит поток всё время соединения, и ограниченный пул задач быстро бы закончился
+ */
+@Configuration
+@EnableConfigurationProperties(ServerHttpProperties.class)
+@RequiredArgsConstructor
+public class ServerStreamingConfig implements WebMvcConfigurer {
+    private final ServerHttpProperties properties;
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("server-stream-");
+        executor.setVirtualThreads(true);
+        configurer.setTaskExecutor(executor);
+        configurer.setDefaultTimeout(properties.getStreamTimeout().toMillis());
+    }
+}
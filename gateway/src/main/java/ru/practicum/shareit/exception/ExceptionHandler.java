@@ -17,4 +17,11 @@ public class ExceptionHandler {
         log.error("Error 400: Валидация аргументов: {}", e.getBindingResult().getAllErrors().getFirst().getDefaultMessage());
         return new ErrorResponse(e.getBindingResult().getAllErrors().getFirst().getDefaultMessage());
     }
+
+    @org.springframework.web.bind.annotation.ExceptionHandler
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ErrorResponse handleValidationException(final ValidationException e) {
+        log.error("Error 400: {}", e.getMessage());
+        return new ErrorResponse(e.getMessage());
+    }
 }
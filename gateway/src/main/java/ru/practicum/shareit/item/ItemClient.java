@@ -10,7 +10,11 @@ import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 @Component
 public class ItemClient extends BaseClient {
@@ -38,16 +42,47 @@ public class ItemClient extends BaseClient {
         return get("/" + itemId, userId);
     }
 
-    public ResponseEntity<Object> getAllItems(Long userId) {
-        return get("", userId);
+    public ResponseEntity<Object> getAllItems(Long userId, Long after, int size) {
+        Map<String, Object> parameters = Map.of("after", after, "size", size);
+        return get("?after={after}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> searchItem(String text) {
-        Map<String, Object> parameters = Map.of("text", text);
-        return get("/search?text={text}", null, parameters);
+    public ResponseEntity<Object> searchItem(String text, LocalDateTime start, LocalDateTime end) {
+        Map<String, Object> parameters = new HashMap<>(Map.of("text", text));
+        if (start == null || end == null) {
+            return get("/search?text={text}", null, parameters);
+        }
+        parameters.put("start", start);
+        parameters.put("end", end);
+        return get("/search?text={text}&start={start}&end={end}", null, parameters);
     }
 
     public ResponseEntity<Object> addComment(Long itemId, CommentDto commentDto, Long userId) {
         return post("/" + itemId + "/comment", userId, commentDto);
     }
+
+    public ResponseEntity<Object> getAvailability(Long itemId, LocalDateTime from, LocalDateTime to) {
+        Map<String, Object> parameters = new HashMap<>();
+        String window = windowQuery(parameters, from, to);
+        return get("/" + itemId + "/availability" + (window.isEmpty() ? "" : "?" + window), null, parameters);
+    }
+
+    public ResponseEntity<Object> getAvailability(List<Long> itemIds, LocalDateTime from, LocalDateTime to) {
+        Map<String, Object> parameters = new HashMap<>(Map.of("ids", itemIds.stream().map(String::valueOf).collect(Collectors.joining(","))));
+        String window = windowQuery(parameters, from, to);
+        return get("/availability?ids={ids}" + (window.isEmpty() ? "" : "&" + window), null, parameters);
+    }
+
+    private static String windowQuery(Map<String, Object> parameters, LocalDateTime from, LocalDateTime to) {
+        StringBuilder query = new StringBuilder();
+        if (from != null) {
+            parameters.put("from", from);
+            query.append("from={from}");
+        }
+        if (to != null) {
+            parameters.put("to", to);
+            query.append(query.isEmpty() ? "" : "&").append("to={to}");
+        }
+        return query.toString();
+    }
 }
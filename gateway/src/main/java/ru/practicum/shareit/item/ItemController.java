@@ -1,14 +1,25 @@
 package ru.practicum.shareit.item;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 @Slf4j
 @RestController
 @RequiredArgsConstructor
@@ -36,15 +47,41 @@ public class ItemController {
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAllItems(@RequestHeader("X-Sharer-User-Id") Long userId) {
+    public ResponseEntity<Object> getAllItems(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                              @RequestParam(defaultValue = "0") @PositiveOrZero Long after,
+                                              @RequestParam(defaultValue = "20") @Positive @Max(100) int size) {
         log.debug("Запрос на получение информации о всех вещах пользователя с id: {}", userId);
-        return itemClient.getAllItems(userId);
+        return itemClient.getAllItems(userId, after, size);
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Object> searchItem(@RequestParam @NotBlank String text) {
-        log.debug("Запрос на поиск вещи: {}", text);
-        return itemClient.searchItem(text);
+    public ResponseEntity<Object> searchItem(@RequestParam @NotBlank String text,
+                                             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+                                             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
+        log.debug("Запрос на поиск вещи: {}, свободной с {} по {}", text, start, end);
+        if ((start == null) != (end == null)) {
+            throw new ValidationException("Для поиска свободных вещей нужно указать и начало, и окончание периода");
+        }
+        if (start != null && !start.isBefore(end)) {
+            throw new ValidationException("Начало периода поиска должно быть раньше окончания");
+        }
+        return itemClient.searchItem(text, start, end);
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public ResponseEntity<Object> getAvailability(@PathVariable Long itemId,
+                                                  @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                  @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.debug("Запрос на получение занятости вещи: {} с {} по {}", itemId, from, to);
+        return itemClient.getAvailability(itemId, from, to);
+    }
+
+    @GetMapping("/availability")
+    public ResponseEntity<Object> getAvailability(@RequestParam @NotEmpty @Size(max = 100) List<@NotNull Long> ids,
+                                                  @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                  @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.debug("Запрос на получение занятости вещей: {} с {} по {}", ids, from, to);
+        return itemClient.getAvailability(ids, from, to);
     }
 
     @PostMapping("/{itemId}/comment")
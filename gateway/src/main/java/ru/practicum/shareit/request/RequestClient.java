@@ -8,6 +8,10 @@ import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.request.dto.CreateRequestDto;
 
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
 @Component
 public class RequestClient extends BaseClient {
 
@@ -29,11 +33,22 @@ public class RequestClient extends BaseClient {
         return get("/" + requestId, userId);
     }
 
-    public ResponseEntity<Object> getOwnRequests(Long userId) {
-        return get("", userId);
+    public ResponseEntity<Object> getOwnRequests(Long userId, LocalDateTime afterCreated, Long afterId, int size) {
+        Map<String, Object> parameters = new HashMap<>(Map.of("size", size));
+        return get("?size={size}" + keysetQuery(parameters, afterCreated, afterId), userId, parameters);
+    }
+
+    public ResponseEntity<Object> getAllRequests(Long userId, LocalDateTime afterCreated, Long afterId, int size) {
+        Map<String, Object> parameters = new HashMap<>(Map.of("size", size));
+        return get("/all?size={size}" + keysetQuery(parameters, afterCreated, afterId), userId, parameters);
     }
 
-    public ResponseEntity<Object> getAllRequests(Long userId, int from, int size) {
-        return get("/all?from=" + from + "&size=" + size, userId);
+    private static String keysetQuery(Map<String, Object> parameters, LocalDateTime afterCreated, Long afterId) {
+        if (afterCreated == null || afterId == null) {
+            return "";
+        }
+        parameters.put("afterCreated", afterCreated);
+        parameters.put("afterId", afterId);
+        return "&afterCreated={afterCreated}&afterId={afterId}";
     }
 }
@@ -1,12 +1,17 @@
 package ru.practicum.shareit.request;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Positive;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.request.dto.CreateRequestDto;
 
+import java.time.LocalDateTime;
+
 @Slf4j
 @RestController
 @RequiredArgsConstructor
@@ -29,14 +34,20 @@ public class RequestController {
     }
 
     @GetMapping
-    public ResponseEntity<Object> getOwnRequests(@RequestHeader("X-Sharer-User-Id") Long userId) {
+    public ResponseEntity<Object> getOwnRequests(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime afterCreated,
+                                                 @RequestParam(required = false) Long afterId,
+                                                 @RequestParam(defaultValue = "20") @Positive @Max(100) int size,
+                                                 @RequestHeader("X-Sharer-User-Id") Long userId) {
         log.debug("Запрос на получение списка своих запросов пользователем: {}", userId);
-        return requestClient.getOwnRequests(userId);
+        return requestClient.getOwnRequests(userId, afterCreated, afterId, size);
     }
 
     @GetMapping("/all")
-    public ResponseEntity<Object> getAllRequests(@RequestHeader("X-Sharer-User-Id") Long userId, @RequestParam(defaultValue = "0") int from, @RequestParam(defaultValue = "10") int size) {
+    public ResponseEntity<Object> getAllRequests(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime afterCreated,
+                                                 @RequestParam(required = false) Long afterId,
+                                                 @RequestParam(defaultValue = "20") @Positive @Max(100) int size,
+                                                 @RequestHeader("X-Sharer-User-Id") Long userId) {
         log.debug("Запрос на получение списка запросов других пользователей пользователем: {}", userId);
-        return requestClient.getAllRequests(userId, from, size);
+        return requestClient.getAllRequests(userId, afterCreated, afterId, size);
     }
 }
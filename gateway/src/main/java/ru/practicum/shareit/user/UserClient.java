@@ -1,9 +1,12 @@
 package ru.practicum.shareit.user;
 
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.user.dto.UserDto;
@@ -12,10 +15,15 @@ import ru.practicum.shareit.user.dto.UserDto;
 public class UserClient extends BaseClient {
 
     private static final String API_PREFIX = "/users";
+    public static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
 
-    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                      @Qualifier("serverStreamRestTemplateBuilder") RestTemplateBuilder streamBuilder) {
         super(
                 builder
+                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
+                        .build(),
+                streamBuilder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
                         .build()
         );
@@ -40,4 +48,8 @@ public class UserClient extends BaseClient {
     public ResponseEntity<Object> getAllUsers() {
         return get("");
     }
+
+    public ResponseEntity<StreamingResponseBody> exportUsers() {
+        return stream("/export", NDJSON);
+    }
 }
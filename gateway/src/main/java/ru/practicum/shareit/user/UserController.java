@@ -5,6 +5,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.validationgroups.Create;
 import ru.practicum.shareit.user.dto.validationgroups.Update;
@@ -46,4 +47,10 @@ public class UserController {
         log.debug("Запрос на получение информации о всех пользователях");
         return userClient.getAllUsers();
     }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportUsers() {
+        log.debug("Запрос на выгрузку всех пользователей");
+        return userClient.exportUsers();
+    }
 }
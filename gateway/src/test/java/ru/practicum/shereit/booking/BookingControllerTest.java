@@ -24,6 +24,7 @@ import java.util.List;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.when;
 
 @AutoConfigureMockMvc
@@ -97,9 +98,9 @@ class BookingControllerTest {
         State state = State.ALL;
         List<BookingDto> bookings = List.of(new BookingDto());
 
-        when(bookingClient.getAllBookings(eq(userId), eq(state))).thenReturn(ResponseEntity.ok(bookings));
+        when(bookingClient.getAllBookings(eq(userId), eq(state), isNull(), isNull(), eq(20))).thenReturn(ResponseEntity.ok(bookings));
 
-        ResponseEntity<Object> response = bookingController.getAllBookings(state, userId);
+        ResponseEntity<Object> response = bookingController.getAllBookings(state, null, null, 20, userId);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
     }
@@ -110,9 +111,9 @@ class BookingControllerTest {
         State state = State.ALL;
         List<BookingDto> bookings = List.of(new BookingDto());
 
-        when(bookingClient.getBookingsForOwner(eq(userId), eq(state))).thenReturn(ResponseEntity.ok(bookings));
+        when(bookingClient.getBookingsForOwner(eq(userId), eq(state), isNull(), isNull(), eq(20))).thenReturn(ResponseEntity.ok(bookings));
 
-        ResponseEntity<Object> response = bookingController.getBookingsForOwner(state, userId);
+        ResponseEntity<Object> response = bookingController.getBookingsForOwner(state, null, null, 20, userId);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
     }
@@ -0,0 +1,166 @@
+package ru.practicum.shereit.client;
+
+import com.sun.net.httpserver.HttpServer;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.web.client.MockServerRestTemplateCustomizer;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.converter.ResourceHttpMessageConverter;
+import org.springframework.mock.http.MockHttpOutputMessage;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.client.ServerHttpClientConfig;
+import ru.practicum.shareit.client.ServerHttpProperties;
+import ru.practicum.shareit.user.UserClient;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class BaseClientTest {
+    private static final String SERVER_URL = "http://localhost:9090";
+
+    private MockRestServiceServer server;
+    private MockRestServiceServer streamServer;
+    private UserClient userClient;
+
+    @BeforeEach
+    public void setUp() {
+        MockServerRestTemplateCustomizer customizer = new MockServerRestTemplateCustomizer();
+        MockServerRestTemplateCustomizer streamCustomizer = new MockServerRestTemplateCustomizer();
+        userClient = new UserClient(SERVER_URL, new RestTemplateBuilder(customizer), new RestTemplateBuilder(streamCustomizer));
+        server = customizer.getServer();
+        streamServer = streamCustomizer.getServer();
+    }
+
+    @Test
+    void shouldPassServerBodyThroughUnchanged() throws IOException {
+        byte[] body = "[{\"id\":1,\"name\":\"User Name\",\"email\":\"user@mail.com\"}]".getBytes(StandardCharsets.UTF_8);
+        server.expect(requestTo(SERVER_URL + "/users"))
+                .andExpect(method(HttpMethod.GET))
+                .andRespond(withSuccess(body, MediaType.APPLICATION_JSON));
+
+        ResponseEntity<Object> response = userClient.getAllUsers();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        assertArrayEquals(body, ((Resource) response.getBody()).getContentAsByteArray());
+        server.verify();
+    }
+
+    @Test
+    void shouldPassServerErrorThroughUnchanged() throws IOException {
+        byte[] body = "{\"error\":\"Пользователь не найден\"}".getBytes(StandardCharsets.UTF_8);
+        server.expect(requestTo(SERVER_URL + "/users/999"))
+                .andRespond(withStatus(HttpStatus.NOT_FOUND).contentType(MediaType.APPLICATION_JSON).body(body));
+
+        ResponseEntity<Object> response = userClient.getUser(999L);
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        assertArrayEquals(body, ((Resource) response.getBody()).getContentAsByteArray());
+        server.verify();
+    }
+
+    @Test
+    void shouldPassEmptyServerResponseWithoutBody() {
+        server.expect(requestTo(SERVER_URL + "/users/1"))
+                .andExpect(method(HttpMethod.DELETE))
+                .andRespond(withStatus(HttpStatus.OK));
+
+        ResponseEntity<Object> response = userClient.deleteUser(1L);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNull(response.getBody());
+        server.verify();
+    }
+
+    @Test
+    void shouldStreamThroughSeparateRestTemplate() throws IOException {
+        byte[] body = "{\"id\":1}\n{\"id\":2}\n".getBytes(StandardCharsets.UTF_8);
+        streamServer.expect(requestTo(SERVER_URL + "/users/export"))
+                .andExpect(method(HttpMethod.GET))
+                .andRespond(withSuccess(body, UserClient.NDJSON));
+
+        ResponseEntity<StreamingResponseBody> response = userClient.exportUsers();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(UserClient.NDJSON, response.getHeaders().getContentType());
+        assertArrayEquals(body, out.toByteArray());
+        streamServer.verify();
+        server.verify();
+    }
+
+    @Test
+    void shouldPassStreamErrorStatusBeforeWritingBody() throws IOException {
+        byte[] body = "{\"error\":\"Ошибка сервера\"}".getBytes(StandardCharsets.UTF_8);
+        streamServer.expect(requestTo(SERVER_URL + "/users/export"))
+                .andRespond(withStatus(HttpStatus.SERVICE_UNAVAILABLE).contentType(MediaType.APPLICATION_JSON).body(body));
+
+        ResponseEntity<StreamingResponseBody> response = userClient.exportUsers();
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+        assertArrayEquals(body, out.toByteArray());
+        streamServer.verify();
+    }
+
+    @Test
+    void shouldReturnConnectionToPoolAfterWritingResponse() throws IOException {
+        byte[] body = "[{\"id\":1,\"name\":\"User Name\",\"email\":\"user@mail.com\"}]".getBytes(StandardCharsets.UTF_8);
+        HttpServer httpServer = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        httpServer.createContext("/users", exchange -> {
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream responseBody = exchange.getResponseBody()) {
+                responseBody.write(body);
+            }
+        });
+        httpServer.start();
+
+        ServerHttpClientConfig config = new ServerHttpClientConfig();
+        ServerHttpProperties properties = new ServerHttpProperties();
+        properties.setMaxConnections(2);
+        properties.setMaxConnectionsPerRoute(2);
+        PoolingHttpClientConnectionManager connectionManager = config.serverConnectionManager(properties);
+        try (CloseableHttpClient httpClient = config.serverHttpClient(connectionManager, properties)) {
+            RestTemplateBuilder builder = new RestTemplateBuilder()
+                    .requestFactory(() -> new HttpComponentsClientHttpRequestFactory(httpClient));
+            UserClient pooledClient = new UserClient("http://localhost:" + httpServer.getAddress().getPort(), builder, builder);
+
+            for (int i = 0; i < 5; i++) {
+                ResponseEntity<Object> response = pooledClient.getAllUsers();
+                MockHttpOutputMessage written = new MockHttpOutputMessage();
+                new ResourceHttpMessageConverter().write((Resource) response.getBody(), MediaType.APPLICATION_JSON, written);
+
+                assertArrayEquals(body, written.getBodyAsBytes());
+                assertEquals(0, connectionManager.getTotalStats().getLeased());
+            }
+        } finally {
+            connectionManager.close();
+            httpServer.stop(0);
+        }
+    }
+}
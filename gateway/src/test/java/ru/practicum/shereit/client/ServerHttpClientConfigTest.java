@@ -0,0 +1,57 @@
+package ru.practicum.shereit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.web.client.RestTemplateAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+import ru.practicum.shareit.client.ServerHttpClientConfig;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+class ServerHttpClientConfigTest {
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(RestTemplateAutoConfiguration.class))
+            .withUserConfiguration(ServerHttpClientConfig.class)
+            .withBean(MeterRegistry.class, SimpleMeterRegistry::new);
+
+    @Test
+    void shouldBuildClientsOnConfiguredPool() {
+        contextRunner
+                .withPropertyValues("shareit-server.http.max-connections=50", "shareit-server.http.max-connections-per-route=20",
+                        "shareit-server.http.max-stream-connections=10")
+                .run(context -> {
+                    PoolingHttpClientConnectionManager connectionManager =
+                            context.getBean("serverConnectionManager", PoolingHttpClientConnectionManager.class);
+                    assertEquals(50, connectionManager.getMaxTotal());
+                    assertEquals(20, connectionManager.getDefaultMaxPerRoute());
+
+                    PoolingHttpClientConnectionManager streamConnectionManager =
+                            context.getBean("serverStreamConnectionManager", PoolingHttpClientConnectionManager.class);
+                    assertEquals(10, streamConnectionManager.getMaxTotal());
+                    assertEquals(10, streamConnectionManager.getDefaultMaxPerRoute());
+
+                    RestTemplate restTemplate = context.getBean(RestTemplateBuilder.class).build();
+                    assertInstanceOf(HttpComponentsClientHttpRequestFactory.class, restTemplate.getRequestFactory());
+                    RestTemplate streamRestTemplate = context.getBean("serverStreamRestTemplateBuilder", RestTemplateBuilder.class).build();
+                    assertInstanceOf(HttpComponentsClientHttpRequestFactory.class, streamRestTemplate.getRequestFactory());
+
+                    context.getBean("serverConnectionPoolMetrics", MeterBinder.class)
+                            .bindTo(context.getBean(MeterRegistry.class));
+                    context.getBean("serverStreamConnectionPoolMetrics", MeterBinder.class)
+                            .bindTo(context.getBean(MeterRegistry.class));
+                    assertNotNull(context.getBean(MeterRegistry.class).find("httpcomponents.httpclient.pool.total.max")
+                            .tag("httpclient", "shareit-server").gauge());
+                    assertNotNull(context.getBean(MeterRegistry.class).find("httpcomponents.httpclient.pool.total.max")
+                            .tag("httpclient", "shareit-server-stream").gauge());
+                });
+    }
+}
@@ -0,0 +1,103 @@
+package ru.practicum.shereit.client;
+
+import com.sun.net.httpserver.HttpServer;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import ru.practicum.shareit.client.ServerHttpClientConfig;
+import ru.practicum.shareit.client.ServerHttpProperties;
+import ru.practicum.shareit.user.UserClient;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Нагрузочный тест транспорта шлюза: 64 потока проксируют запросы на заглушку сервера с задержкой ответа.
+ * default - RestTemplateBuilder без настроек (пул httpclient5 по умолчанию, 5 соединений на хост),
+ * pooled - пул из ServerHttpClientConfig
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(64)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ServerTransportBenchmark {
+    private static final byte[] USERS = "[{\"id\":1,\"name\":\"User Name\",\"email\":\"user@mail.com\"}]".getBytes(StandardCharsets.UTF_8);
+
+    @Param({"default", "pooled"})
+    public String transport;
+
+    @Param("5")
+    public int serverLatencyMillis;
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private PoolingHttpClientConnectionManager connectionManager;
+    private CloseableHttpClient httpClient;
+    private UserClient userClient;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        serverExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(serverExecutor);
+        server.createContext("/users", exchange -> {
+            try {
+                Thread.sleep(serverLatencyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, USERS.length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(USERS);
+            }
+        });
+        server.start();
+
+        String serverUrl = "http://localhost:" + server.getAddress().getPort();
+        RestTemplateBuilder builder = new RestTemplateBuilder();
+        if ("pooled".equals(transport)) {
+            ServerHttpClientConfig config = new ServerHttpClientConfig();
+            ServerHttpProperties properties = new ServerHttpProperties();
+            connectionManager = config.serverConnectionManager(properties);
+            httpClient = config.serverHttpClient(connectionManager, properties);
+            builder = builder.requestFactory(() -> new HttpComponentsClientHttpRequestFactory(httpClient));
+        }
+        userClient = new UserClient(serverUrl, builder, builder);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        if (httpClient != null) {
+            httpClient.close();
+            connectionManager.close();
+        }
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    /**
+     * Тело дочитывается и закрывается, как при записи ответа клиенту: иначе соединение остаётся занятым
+     * и пул пустеет за несколько вызовов
+     */
+    @Benchmark
+    public long getAllUsers() throws IOException {
+        ResponseEntity<Object> response = userClient.getAllUsers();
+        try (InputStream body = ((Resource) response.getBody()).getInputStream()) {
+            return body.transferTo(OutputStream.nullOutputStream());
+        }
+    }
+}
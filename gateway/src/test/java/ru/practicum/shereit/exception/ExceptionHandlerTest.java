@@ -13,6 +13,7 @@ import org.springframework.web.bind.MethodArgumentNotValidException;
 import ru.practicum.shareit.ShareItGateway;
 import ru.practicum.shareit.exception.ErrorResponse;
 import ru.practicum.shareit.exception.ExceptionHandler;
+import ru.practicum.shareit.exception.ValidationException;
 
 import java.util.List;
 
@@ -45,4 +46,11 @@ class ExceptionHandlerTest {
 
         assertEquals("Error 400: Bad Request", response.getError());
     }
+
+    @Test
+    void testHandleValidationException() {
+        ErrorResponse response = exceptionHandler.handleValidationException(new ValidationException("Error 400: Bad Request"));
+
+        assertEquals("Error 400: Bad Request", response.getError());
+    }
 }
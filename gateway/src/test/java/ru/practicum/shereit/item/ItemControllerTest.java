@@ -10,16 +10,21 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.ContextConfiguration;
 import ru.practicum.shareit.ShareItGateway;
+import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.ItemClient;
 import ru.practicum.shareit.item.ItemController;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @AutoConfigureMockMvc
@@ -95,9 +100,9 @@ class ItemControllerTest {
         Long userId = 2L;
         List<ItemDto> items = List.of(new ItemDto(), new ItemDto());
 
-        when(itemClient.getAllItems(eq(userId))).thenReturn(ResponseEntity.ok(items));
+        when(itemClient.getAllItems(eq(userId), eq(0L), eq(20))).thenReturn(ResponseEntity.ok(items));
 
-        ResponseEntity<Object> response = itemController.getAllItems(userId);
+        ResponseEntity<Object> response = itemController.getAllItems(userId, 0L, 20);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
     }
@@ -107,13 +112,23 @@ class ItemControllerTest {
         String searchText = "Test";
         List<ItemDto> items = List.of(new ItemDto());
 
-        when(itemClient.searchItem(eq(searchText))).thenReturn(ResponseEntity.ok(items));
+        when(itemClient.searchItem(eq(searchText), isNull(), isNull())).thenReturn(ResponseEntity.ok(items));
 
-        ResponseEntity<Object> response = itemController.searchItem(searchText);
+        ResponseEntity<Object> response = itemController.searchItem(searchText, null, null);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
     }
 
+    @Test
+    void shouldRejectSearchWithIncompleteOrEmptyWindow() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+
+        assertThrows(ValidationException.class, () -> itemController.searchItem("Test", start, null));
+        assertThrows(ValidationException.class, () -> itemController.searchItem("Test", null, start));
+        assertThrows(ValidationException.class, () -> itemController.searchItem("Test", start, start));
+        verifyNoInteractions(itemClient);
+    }
+
     @Test
     void shouldAddComment() {
         Long itemId = 1L;
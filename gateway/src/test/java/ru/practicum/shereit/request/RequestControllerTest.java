@@ -16,11 +16,13 @@ import ru.practicum.shareit.request.dto.CreateRequestDto;
 import ru.practicum.shareit.request.dto.RequestDto;
 import ru.practicum.shareit.user.dto.UserDto;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.when;
 
 @AutoConfigureMockMvc
@@ -74,9 +76,9 @@ class RequestControllerTest {
         Long userId = 2L;
         List<RequestDto> requests = List.of(new RequestDto());
 
-        when(requestClient.getOwnRequests(eq(userId))).thenReturn(ResponseEntity.ok(requests));
+        when(requestClient.getOwnRequests(eq(userId), isNull(), isNull(), eq(20))).thenReturn(ResponseEntity.ok(requests));
 
-        ResponseEntity<Object> response = requestController.getOwnRequests(userId);
+        ResponseEntity<Object> response = requestController.getOwnRequests(null, null, 20, userId);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
     }
@@ -84,13 +86,14 @@ class RequestControllerTest {
     @Test
     void shouldGetAllRequests() {
         Long userId = 2L;
-        int from = 0;
+        LocalDateTime afterCreated = LocalDateTime.of(2024, 1, 1, 12, 0);
+        long afterId = 5L;
         int size = 10;
         List<RequestDto> requests = List.of(new RequestDto());
 
-        when(requestClient.getAllRequests(eq(userId), eq(from), eq(size))).thenReturn(ResponseEntity.ok(requests));
+        when(requestClient.getAllRequests(eq(userId), eq(afterCreated), eq(afterId), eq(size))).thenReturn(ResponseEntity.ok(requests));
 
-        ResponseEntity<Object> response = requestController.getAllRequests(userId, from, size);
+        ResponseEntity<Object> response = requestController.getAllRequests(afterCreated, afterId, size, userId);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
     }
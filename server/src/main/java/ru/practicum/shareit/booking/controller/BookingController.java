@@ -2,12 +2,17 @@ package ru.practicum.shareit.booking.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.CreateBookingDto;
 import ru.practicum.shareit.booking.enums.State;
 import ru.practicum.shareit.booking.service.BookingService;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Slf4j
@@ -26,6 +31,26 @@ public class BookingController {
         return bookingService.create(createBookingDto, userId);
     }
 
+    /**
+     * Пакетное добавление бронирований, результат возвращается по каждому элементу
+     */
+    @PostMapping("/batch")
+    public List<BookingBatchResultDto> createBookings(@RequestBody List<CreateBookingDto> createBookingDtos,
+                                                      @RequestHeader("X-Sharer-User-Id") Long userId) {
+        log.debug("Запрос на пакетное добавление бронирований: {} пользователем: {}", createBookingDtos.size(), userId);
+        return bookingService.createAll(createBookingDtos, userId);
+    }
+
+    /**
+     * Пакетное подтверждение или отклонение запросов на бронирование, результат возвращается по каждому id
+     */
+    @PatchMapping("/batch")
+    public List<BookingBatchResultDto> updateBookings(@RequestBody List<Long> bookingIds, @RequestParam boolean approved,
+                                                      @RequestHeader("X-Sharer-User-Id") Long userId) {
+        log.debug("Запрос на пакетную обработку запросов на бронирование: {} пользователем: {}", bookingIds, userId);
+        return bookingService.updateAll(bookingIds, approved, userId);
+    }
+
     /**
      * Подтверждение или отклонение запроса на бронирование
      */
@@ -35,6 +60,15 @@ public class BookingController {
         return bookingService.update(bookingId, approved, userId);
     }
 
+    /**
+     * Подписка на изменения статусов бронирований пользователя и бронирований его вещей
+     */
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribeToBookingEvents(@RequestHeader("X-Sharer-User-Id") Long userId) {
+        log.debug("Запрос на подписку на события бронирований пользователем: {}", userId);
+        return bookingService.subscribe(userId);
+    }
+
     /**
      * Получение данных о конкретном бронировании
      */
@@ -45,20 +79,30 @@ public class BookingController {
     }
 
     /**
-     * Получение списка всех бронирований текущего пользователя
+     * Получение списка всех бронирований текущего пользователя.
+     * Следующая страница запрашивается по start и id последнего полученного бронирования
      */
     @GetMapping
-    public List<BookingDto> getAllBookings(@RequestParam(defaultValue = "ALL") State state, @RequestHeader("X-Sharer-User-Id") Long userId) {
+    public List<BookingDto> getAllBookings(@RequestParam(defaultValue = "ALL") State state,
+                                           @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime afterStart,
+                                           @RequestParam(required = false) Long afterId,
+                                           @RequestParam(defaultValue = "20") int size,
+                                           @RequestHeader("X-Sharer-User-Id") Long userId) {
         log.debug("Запрос на получение списка всех бронирований пользователя: {}", userId);
-        return bookingService.getAllBookings(userId, state);
+        return bookingService.getAllBookings(userId, state, afterStart, afterId, size);
     }
 
     /**
-     * Получение списка бронирований для всех вещей текущего пользователя
+     * Получение списка бронирований для всех вещей текущего пользователя.
+     * Следующая страница запрашивается по start и id последнего полученного бронирования
      */
     @GetMapping("/owner")
-    public List<BookingDto> getBookingsForOwner(@RequestParam(defaultValue = "ALL") State state, @RequestHeader("X-Sharer-User-Id") Long userId) {
+    public List<BookingDto> getBookingsForOwner(@RequestParam(defaultValue = "ALL") State state,
+                                                @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime afterStart,
+                                                @RequestParam(required = false) Long afterId,
+                                                @RequestParam(defaultValue = "20") int size,
+                                                @RequestHeader("X-Sharer-User-Id") Long userId) {
         log.debug("Запрос на получение списка бронирований для всех вещей пользователя: {}", userId);
-        return bookingService.getBookingsForOwner(userId, state);
+        return bookingService.getBookingsForOwner(userId, state, afterStart, afterId, size);
     }
 }
@@ -0,0 +1,18 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.*;
+
+/**
+ * Результат обработки одного элемента пакета: index - позиция в запросе,
+ * заполнено либо booking, либо error
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+public class BookingBatchResultDto {
+    private int index;
+    private BookingDto booking;
+    private String error;
+}
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.booking.enums;
+
+import java.time.LocalDateTime;
+
+/**
+ * Фаза жизненного цикла бронирования относительно текущего времени
+ */
+public enum Phase {
+    FUTURE, CURRENT, PAST;
+
+    public static Phase at(LocalDateTime start, LocalDateTime end, LocalDateTime now) {
+        if (now.isBefore(start)) {
+            return FUTURE;
+        }
+        return now.isBefore(end) ? CURRENT : PAST;
+    }
+}
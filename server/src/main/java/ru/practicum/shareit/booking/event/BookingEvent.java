@@ -0,0 +1,43 @@
+package ru.practicum.shareit.booking.event;
+
+import jakarta.persistence.*;
+import lombok.*;
+import ru.practicum.shareit.booking.enums.Status;
+
+import java.time.LocalDateTime;
+
+/**
+ * Запись исходящей очереди (outbox) о создании бронирования или смене его статуса.
+ * Пишется в одной транзакции с бронированием и удаляется после рассылки подписчикам
+ */
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "booking_events")
+public class BookingEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "booking_id", nullable = false)
+    private Long bookingId;
+
+    @Column(name = "item_id", nullable = false)
+    private Long itemId;
+
+    @Column(name = "owner_id", nullable = false)
+    private Long ownerId;
+
+    @Column(name = "booker_id", nullable = false)
+    private Long bookerId;
+
+    @Enumerated
+    @Column(name = "status", nullable = false)
+    private Status status;
+
+    @Column(name = "created", nullable = false)
+    private LocalDateTime created;
+}
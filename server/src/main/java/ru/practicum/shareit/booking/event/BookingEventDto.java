@@ -0,0 +1,19 @@
+package ru.practicum.shareit.booking.event;
+
+import lombok.*;
+import ru.practicum.shareit.booking.enums.Status;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+public class BookingEventDto {
+    private Long id;
+    private Long bookingId;
+    private Long itemId;
+    private Status status;
+    private LocalDateTime created;
+}
@@ -0,0 +1,179 @@
+package ru.practicum.shareit.booking.event;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Рассылка событий бронирований из исходящей очереди подписчикам server-sent events.
+ * Очередь читается по расписанию одним индексным запросом, независимо от числа подписчиков;
+ * событие получают владелец вещи и автор бронирования. Доставка - не менее одного раза.
+ * Планировщик только раскладывает события по ограниченным очередям подписок, а в сокет их пишут
+ * виртуальные потоки отправки: медленный клиент не задерживает рассылку остальным и другие фоновые задачи
+ */
+@Slf4j
+@Component
+public class BookingEventRelay {
+    public static final String EVENT_NAME = "booking-status";
+    private static final int RELAY_BATCH_SIZE = 100;
+
+    private final BookingEventRepository bookingEventRepository;
+    private final BookingMapper bookingMapper;
+    private final long emitterTimeoutMillis;
+    private final int emitterQueueCapacity;
+    private final Map<Long, Set<Subscription>> subscribers = new ConcurrentHashMap<>();
+    private final ExecutorService sender = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("booking-event-sender-", 0).factory());
+
+    public BookingEventRelay(BookingEventRepository bookingEventRepository, BookingMapper bookingMapper,
+                             @Value("${shareit.booking-events.emitter-timeout}") Duration emitterTimeout,
+                             @Value("${shareit.booking-events.emitter-queue-capacity}") int emitterQueueCapacity) {
+        this.bookingEventRepository = bookingEventRepository;
+        this.bookingMapper = bookingMapper;
+        this.emitterTimeoutMillis = emitterTimeout.toMillis();
+        this.emitterQueueCapacity = emitterQueueCapacity;
+    }
+
+    /**
+     * Подписка пользователя на события его бронирований и бронирований его вещей.
+     * По истечении emitter-timeout поток закрывается, клиент переподключается
+     */
+    public SseEmitter subscribe(Long userId) {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMillis);
+        Subscription subscription = new Subscription(userId, emitter);
+        subscribers.compute(userId, (id, subscriptions) -> {
+            Set<Subscription> userSubscriptions = subscriptions != null ? subscriptions : new CopyOnWriteArraySet<>();
+            userSubscriptions.add(subscription);
+            return userSubscriptions;
+        });
+        emitter.onCompletion(() -> unsubscribe(subscription));
+        emitter.onTimeout(() -> unsubscribe(subscription));
+        emitter.onError(e -> unsubscribe(subscription));
+        log.debug("Пользователь {} подписан на события бронирований", userId);
+        return emitter;
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking-events.relay-interval}")
+    public void relay() {
+        List<BookingEvent> events;
+        do {
+            events = bookingEventRepository.findByOrderByIdAsc(Limit.of(RELAY_BATCH_SIZE));
+            if (events.isEmpty()) {
+                return;
+            }
+            for (BookingEvent event : events) {
+                BookingEventDto eventDto = bookingMapper.toBookingEventDto(event);
+                send(event.getOwnerId(), eventDto);
+                send(event.getBookerId(), eventDto);
+            }
+            bookingEventRepository.deleteAllByIdInBatch(events.stream().map(BookingEvent::getId).toList());
+        } while (events.size() == RELAY_BATCH_SIZE);
+    }
+
+    /**
+     * Комментарий раз в heartbeat-interval не даёт прокси и шлюзу закрыть простаивающее соединение по таймауту чтения
+     */
+    @Scheduled(fixedRateString = "${shareit.booking-events.heartbeat-interval}")
+    public void heartbeat() {
+        subscribers.values().forEach(subscriptions -> subscriptions.forEach(subscription ->
+                subscription.enqueue(SseEmitter.event().comment("heartbeat"))));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sender.shutdownNow();
+    }
+
+    private void send(Long userId, BookingEventDto eventDto) {
+        Set<Subscription> subscriptions = subscribers.get(userId);
+        if (subscriptions == null) {
+            return;
+        }
+        for (Subscription subscription : subscriptions) {
+            subscription.enqueue(SseEmitter.event()
+                    .id(String.valueOf(eventDto.getId()))
+                    .name(EVENT_NAME)
+                    .data(eventDto, MediaType.APPLICATION_JSON));
+        }
+    }
+
+    private void drop(Subscription subscription, Exception e) {
+        log.debug("Подписка пользователя {} на события бронирований закрыта: {}", subscription.userId, e.getMessage());
+        unsubscribe(subscription);
+        subscription.queue.clear();
+        subscription.emitter.completeWithError(e);
+    }
+
+    private void unsubscribe(Subscription subscription) {
+        subscribers.computeIfPresent(subscription.userId, (id, subscriptions) -> {
+            subscriptions.remove(subscription);
+            return subscriptions.isEmpty() ? null : subscriptions;
+        });
+    }
+
+    /**
+     * Очередь событий одного подключения. Пишет в сокет не больше одного потока отправки за раз;
+     * подписка, которая не успевает забирать события и переполнила очередь, закрывается, клиент переподключается
+     */
+    private final class Subscription {
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<SseEmitter.SseEventBuilder> queue = new ArrayBlockingQueue<>(emitterQueueCapacity);
+        private final AtomicBoolean sending = new AtomicBoolean();
+
+        Subscription(Long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        void enqueue(SseEmitter.SseEventBuilder event) {
+            if (!queue.offer(event)) {
+                drop(this, new IllegalStateException("очередь событий подписчика переполнена"));
+                return;
+            }
+            startSending();
+        }
+
+        private void startSending() {
+            if (sending.compareAndSet(false, true)) {
+                try {
+                    sender.execute(this::sendQueued);
+                } catch (RejectedExecutionException e) {
+                    sending.set(false);
+                }
+            }
+        }
+
+        private void sendQueued() {
+            try {
+                SseEmitter.SseEventBuilder event;
+                while ((event = queue.poll()) != null) {
+                    emitter.send(event);
+                }
+            } catch (IOException | IllegalStateException e) {
+                drop(this, e);
+                return;
+            } finally {
+                sending.set(false);
+            }
+            // Событие, добавленное между последним poll и сбросом флага, отправит новый поток
+            if (!queue.isEmpty()) {
+                startSending();
+            }
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.booking.event;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface BookingEventRepository extends JpaRepository<BookingEvent, Long> {
+    List<BookingEvent> findByOrderByIdAsc(Limit limit);
+}
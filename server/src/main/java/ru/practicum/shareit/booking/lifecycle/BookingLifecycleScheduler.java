@@ -0,0 +1,214 @@
+package ru.practicum.shareit.booking.lifecycle;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.enums.Phase;
+import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.booking.event.BookingEventRepository;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingPeriod;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.availability.ItemAvailabilityIndex;
+import ru.practicum.shareit.item.cache.ItemCache;
+import ru.practicum.shareit.item.pointer.ItemBookingPointers;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Переходы бронирований по фазам FUTURE -> CURRENT -> PAST в момент начала и окончания.
+ * Таймеры держатся в колесе в памяти и восстанавливаются из базы при старте. Отменённые и изменённые бронирования
+ * из колеса не удаляются: при срабатывании состояние перечитывается из базы, и лишний таймер ничего не меняет.
+ * Пачка, переход которой упал, ставится в колесо повторно через RETRY_DELAY_SECONDS, а периодическая сверка
+ * с базой догоняет бронирования, чьи таймеры потеряны (остановка между фиксацией и постановкой таймера)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookingLifecycleScheduler {
+    private static final int LOAD_PAGE_SIZE = 1000;
+    private static final int TRANSITION_BATCH_SIZE = 500;
+    private static final long RETRY_DELAY_SECONDS = 5;
+    private static final Duration RECONCILE_GRACE = Duration.ofMinutes(1);
+
+    private final BookingRepository bookingRepository;
+    private final BookingEventRepository bookingEventRepository;
+    private final BookingMapper bookingMapper;
+    private final ItemCache itemCache;
+    private final ItemAvailabilityIndex itemAvailabilityIndex;
+    private final ItemBookingPointers itemBookingPointers;
+    private final TransactionTemplate transactionTemplate;
+
+    private final TimingWheel wheel = new TimingWheel(toSeconds(LocalDateTime.now()));
+
+    /**
+     * Таймеры всех незавершённых бронирований. Просроченные за время простоя сработают на ближайшем шаге.
+     * Бронирования, созданные во время загрузки, могут попасть в колесо дважды, что безопасно
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long afterId = 0;
+        List<BookingPeriod> page;
+        do {
+            page = bookingRepository.findPeriodsByPhaseNot(Phase.PAST, afterId, Limit.of(LOAD_PAGE_SIZE));
+            synchronized (wheel) {
+                page.forEach(this::scheduleLocked);
+            }
+            if (!page.isEmpty()) {
+                afterId = page.getLast().getId();
+            }
+        } while (page.size() == LOAD_PAGE_SIZE);
+        log.info("Таймеры бронирований восстановлены, ожидает срабатывания: {}", pendingTimers());
+    }
+
+    /**
+     * Таймеры начала и окончания нового бронирования. В транзакции ставятся после фиксации,
+     * чтобы срабатывание не опередило запись бронирования в базу
+     */
+    public void schedule(Booking booking) {
+        Long bookingId = booking.getId();
+        LocalDateTime start = booking.getStart();
+        LocalDateTime end = booking.getEnd();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            scheduleNow(bookingId, start, end);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                scheduleNow(bookingId, start, end);
+            }
+        });
+    }
+
+    public int pendingTimers() {
+        synchronized (wheel) {
+            return wheel.size();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking-lifecycle.tick}")
+    public void tick() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> due = new ArrayList<>();
+        synchronized (wheel) {
+            wheel.advance(toSeconds(now), due::add);
+        }
+        for (int from = 0; from < due.size(); from += TRANSITION_BATCH_SIZE) {
+            transitionOrRetry(due.subList(from, Math.min(due.size(), from + TRANSITION_BATCH_SIZE)), now);
+        }
+    }
+
+    /**
+     * Сверка фаз с базой страницами по id. Берутся только бронирования, просроченные больше чем на RECONCILE_GRACE,
+     * чтобы не перехватывать переходы и повторы, которые колесо вот-вот выполнит само
+     */
+    @Scheduled(fixedDelayString = "${shareit.booking-lifecycle.reconcile-interval}",
+            initialDelayString = "${shareit.booking-lifecycle.reconcile-interval}")
+    public void reconcile() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime dueBefore = now.minus(RECONCILE_GRACE);
+        long afterId = 0;
+        int stale = 0;
+        List<Long> page;
+        do {
+            page = bookingRepository.findIdsWithStalePhase(dueBefore, afterId, Limit.of(TRANSITION_BATCH_SIZE));
+            if (page.isEmpty()) {
+                break;
+            }
+            transitionOrRetry(page, now);
+            stale += page.size();
+            afterId = page.getLast();
+        } while (page.size() == TRANSITION_BATCH_SIZE);
+
+        if (stale > 0) {
+            log.warn("Сверка фаз бронирований: переведено бронирований с потерянным таймером: {}", stale);
+        } else {
+            log.debug("Сверка фаз бронирований завершена, расхождений нет");
+        }
+    }
+
+    /**
+     * Перевод бронирований в фазу на момент now. Не подтверждённое к началу бронирование отменяется,
+     * владелец и автор получают событие об отмене. Ссылки вещи на последнее и ближайшее бронирование сдвигаются
+     */
+    public void transition(Collection<Long> bookingIds, LocalDateTime now) {
+        int changed = 0;
+        // Вещи блокируются при сдвиге ссылок в порядке id, поэтому не встают во взаимное ожидание
+        // с reconcile и createAll, которые блокируют вещи в том же порядке
+        for (Booking booking : bookingRepository.findWithItemAndBookerByIdInOrderByItemIdAscIdAsc(bookingIds)) {
+            Phase phase = Phase.at(booking.getStart(), booking.getEnd(), now);
+            if (phase != Phase.FUTURE && booking.getStatus() == Status.WAITING) {
+                booking.setStatus(Status.CANCELED);
+                bookingEventRepository.save(bookingMapper.toBookingEvent(booking));
+                itemCache.evictOwnerBookings(booking.getItem().getId());
+                itemAvailabilityIndex.remove(booking);
+            }
+            if (booking.getPhase() != phase) {
+                booking.setPhase(phase);
+                changed++;
+                if (phase == Phase.PAST) {
+                    itemAvailabilityIndex.remove(booking);
+                }
+            }
+            itemBookingPointers.advance(booking, now);
+        }
+        log.debug("Фаза изменена у бронирований: {} из {}", changed, bookingIds.size());
+    }
+
+    /**
+     * Переход пачки в своей транзакции. Сбой одной пачки не отменяет остальные: её таймеры уже сняты с колеса,
+     * поэтому бронирования ставятся в колесо повторно
+     */
+    private void transitionOrRetry(List<Long> bookingIds, LocalDateTime now) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> transition(bookingIds, now));
+        } catch (RuntimeException e) {
+            log.warn("Не удалось перевести фазу бронирований ({} шт.), повтор через {} с", bookingIds.size(),
+                    RETRY_DELAY_SECONDS, e);
+            long deadline = toSeconds(now) + RETRY_DELAY_SECONDS;
+            synchronized (wheel) {
+                bookingIds.forEach(bookingId -> wheel.schedule(deadline, bookingId));
+            }
+        }
+    }
+
+    private void scheduleNow(Long bookingId, LocalDateTime start, LocalDateTime end) {
+        synchronized (wheel) {
+            scheduleLocked(bookingId, start, end);
+        }
+    }
+
+    private void scheduleLocked(BookingPeriod period) {
+        scheduleLocked(period.getId(), period.getStart(), period.getEnd());
+    }
+
+    private void scheduleLocked(Long bookingId, LocalDateTime start, LocalDateTime end) {
+        wheel.schedule(toDeadline(start), bookingId);
+        wheel.schedule(toDeadline(end), bookingId);
+    }
+
+    private static long toSeconds(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    /**
+     * Первая секунда, в которой момент time уже наступил
+     */
+    private static long toDeadline(LocalDateTime time) {
+        return toSeconds(time) + (time.getNano() > 0 ? 1 : 0);
+    }
+}
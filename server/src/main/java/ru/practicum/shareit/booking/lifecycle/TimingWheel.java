@@ -0,0 +1,110 @@
+package ru.practicum.shareit.booking.lifecycle;
+
+import java.util.Arrays;
+
+/**
+ * Иерархическое колесо таймеров с шагом в одну секунду: шесть уровней по 64 ячейки покрывают любой реальный срок.
+ * Таймер - пара примитивов (срок в секундах и идентификатор) в массиве ячейки, без объекта на таймер.
+ * Добавление - O(1), срабатывание - амортизированно O(1) на таймер: при переходе через границу уровня
+ * ячейка старшего уровня перераспределяется по младшим. Не потокобезопасно, синхронизация на вызывающей стороне
+ */
+final class TimingWheel {
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 6;
+
+    private final Slot[][] wheels = new Slot[LEVELS][SLOTS];
+    private long currentTick;
+    private int size;
+
+    TimingWheel(long currentTick) {
+        this.currentTick = currentTick;
+        for (Slot[] wheel : wheels) {
+            for (int i = 0; i < SLOTS; i++) {
+                wheel[i] = new Slot();
+            }
+        }
+    }
+
+    /**
+     * Таймер на секунду deadline. Просроченный таймер сработает на ближайшем шаге
+     */
+    void schedule(long deadline, long id) {
+        place(Math.max(deadline, currentTick + 1), id);
+        size++;
+    }
+
+    /**
+     * Продвижение колеса до секунды now включительно, идентификаторы сработавших таймеров передаются в sink
+     */
+    void advance(long now, LongSink sink) {
+        while (currentTick < now) {
+            currentTick++;
+            int level = 0;
+            while (level < LEVELS - 1 && (currentTick & ((1L << (SLOT_BITS * (level + 1))) - 1)) == 0) {
+                level++;
+            }
+            for (; level > 0; level--) {
+                Slot slot = wheels[level][(int) (currentTick >>> (SLOT_BITS * level)) & SLOT_MASK];
+                long[] entries = slot.entries;
+                int count = slot.count;
+                slot.clear();
+                for (int i = 0; i < count; i += 2) {
+                    place(entries[i], entries[i + 1]);
+                }
+            }
+            Slot slot = wheels[0][(int) currentTick & SLOT_MASK];
+            for (int i = 0; i < slot.count; i += 2) {
+                sink.accept(slot.entries[i + 1]);
+            }
+            size -= slot.count / 2;
+            slot.clear();
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    long currentTick() {
+        return currentTick;
+    }
+
+    private void place(long deadline, long id) {
+        long delta = deadline - currentTick;
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= 1L << (SLOT_BITS * (level + 1))) {
+            level++;
+        }
+        wheels[level][(int) (deadline >>> (SLOT_BITS * level)) & SLOT_MASK].add(deadline, id);
+    }
+
+    @FunctionalInterface
+    interface LongSink {
+        void accept(long value);
+    }
+
+    /**
+     * Пары (срок, идентификатор) подряд в одном массиве. Опустевшая ячейка отпускает массив
+     */
+    private static final class Slot {
+        private static final long[] EMPTY = new long[0];
+
+        private long[] entries = EMPTY;
+        private int count;
+
+        void add(long deadline, long id) {
+            if (count == entries.length) {
+                entries = Arrays.copyOf(entries, Math.max(8, entries.length * 2));
+            }
+            entries[count++] = deadline;
+            entries[count++] = id;
+        }
+
+        void clear() {
+            entries = EMPTY;
+            count = 0;
+        }
+    }
+}
@@ -4,13 +4,18 @@ import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Component;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.CreateBookingDto;
+import ru.practicum.shareit.booking.enums.Phase;
 import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.booking.event.BookingEvent;
+import ru.practicum.shareit.booking.event.BookingEventDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
 
+import java.time.LocalDateTime;
+
 @Component
 @AllArgsConstructor
 public class BookingMapper {
@@ -35,6 +40,28 @@ public class BookingMapper {
                 .item(item)
                 .booker(booker)
                 .status(Status.WAITING)
+                .phase(Phase.at(createBookingDto.getStart(), createBookingDto.getEnd(), LocalDateTime.now()))
+                .build();
+    }
+
+    public BookingEvent toBookingEvent(Booking booking) {
+        return BookingEvent.builder()
+                .bookingId(booking.getId())
+                .itemId(booking.getItem().getId())
+                .ownerId(booking.getItem().getOwner().getId())
+                .bookerId(booking.getBooker().getId())
+                .status(booking.getStatus())
+                .created(LocalDateTime.now())
+                .build();
+    }
+
+    public BookingEventDto toBookingEventDto(BookingEvent bookingEvent) {
+        return BookingEventDto.builder()
+                .id(bookingEvent.getId())
+                .bookingId(bookingEvent.getBookingId())
+                .itemId(bookingEvent.getItemId())
+                .status(bookingEvent.getStatus())
+                .created(bookingEvent.getCreated())
                 .build();
     }
 }
@@ -2,6 +2,7 @@ package ru.practicum.shareit.booking.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import ru.practicum.shareit.booking.enums.Phase;
 import ru.practicum.shareit.booking.enums.Status;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
@@ -26,15 +27,23 @@ public class Booking {
     @Column(name = "end_date", nullable = false)
     private LocalDateTime end;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "item_id", nullable = false)
     private Item item;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "booker_id", nullable = false)
     private User booker;
 
     @Enumerated
     @Column(name = "status", nullable = false)
     private Status status;
+
+    /**
+     * Хранимая фаза, чтобы выборки CURRENT/PAST/FUTURE шли по индексу на равенство.
+     * Переводится BookingLifecycleScheduler в момент начала и окончания бронирования
+     */
+    @Enumerated
+    @Column(name = "phase", nullable = false)
+    private Phase phase;
 }
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.booking.repository;
+
+import ru.practicum.shareit.booking.model.Booking;
+
+import java.util.List;
+
+public interface BookingBatchRepository {
+    /**
+     * Вставка новых бронирований одним JDBC-пакетом, сгенерированные id проставляются в переданные объекты.
+     * Объекты не попадают в контекст персистентности
+     */
+    void insertAll(List<Booking> bookings);
+}
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.booking.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Проекция бронирования для построения индексов в памяти без загрузки сущностей
+ */
+public interface BookingPeriod {
+    Long getId();
+
+    Long getItemId();
+
+    LocalDateTime getStart();
+
+    LocalDateTime getEnd();
+}
@@ -1,48 +1,96 @@
 package ru.practicum.shareit.booking.repository;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.enums.Phase;
 import ru.practicum.shareit.booking.enums.Status;
 import ru.practicum.shareit.booking.model.Booking;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface BookingRepository extends JpaRepository<Booking, Long> {
-    List<Booking> findByBookerIdOrderByStartDesc(Long userId);
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingBatchRepository {
+    /**
+     * Курсор (start, id): страница начинается сразу после бронирования afterStart/afterId в порядке убывания
+     */
+    String KEYSET_PAGE = " AND (b.start < :afterStart OR (b.start = :afterStart AND b.id < :afterId)) ORDER BY b.start DESC, b.id DESC";
 
-    @Query("SELECT b FROM Booking b WHERE b.booker.id = :userId AND b.start <= :now AND b.end >= CURRENT_TIMESTAMP")
-    List<Booking> findCurrentBookingsByBookerId(Long userId);
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("SELECT b FROM Booking b WHERE b.booker.id = :userId" + KEYSET_PAGE)
+    List<Booking> findAllBookingsByBookerId(Long userId, LocalDateTime afterStart, Long afterId, Limit limit);
 
-    @Query("SELECT b FROM Booking b WHERE b.booker.id = :userId AND b.end < CURRENT_TIMESTAMP")
-    List<Booking> findPastBookingsByBookerId(Long userId);
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("SELECT b FROM Booking b WHERE b.booker.id = :userId AND b.phase = :phase" + KEYSET_PAGE)
+    List<Booking> findByBookerIdAndPhase(Long userId, Phase phase, LocalDateTime afterStart, Long afterId, Limit limit);
 
-    @Query("SELECT b FROM Booking b WHERE b.booker.id = :userId AND b.start > CURRENT_TIMESTAMP")
-    List<Booking> findFutureBookingsByBookerId(Long userId);
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("SELECT b FROM Booking b WHERE b.booker.id = :userId AND b.status = :status" + KEYSET_PAGE)
+    List<Booking> findByBookerIdAndStatus(Long userId, Status status, LocalDateTime afterStart, Long afterId, Limit limit);
 
-    List<Booking> findByBookerIdAndStatus(Long userId, Status status);
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("SELECT b FROM Booking b WHERE b.item.owner.id = :userId" + KEYSET_PAGE)
+    List<Booking> findAllBookingsByOwnerId(Long userId, LocalDateTime afterStart, Long afterId, Limit limit);
 
-    @Query("SELECT b FROM Booking b WHERE b.item.owner.id = :userId ORDER BY b.start DESC")
-    List<Booking> findByOwnerIdOrderByStartDesc(Long userId);
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("SELECT b FROM Booking b WHERE b.item.owner.id = :userId AND b.phase = :phase" + KEYSET_PAGE)
+    List<Booking> findByOwnerIdAndPhase(Long userId, Phase phase, LocalDateTime afterStart, Long afterId, Limit limit);
 
-    @Query("SELECT b FROM Booking b WHERE b.item.owner.id = :userId AND b.start <= CURRENT_TIMESTAMP AND b.end >= CURRENT_TIMESTAMP")
-    List<Booking> findCurrentBookingsByOwnerId(Long userId);
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("SELECT b FROM Booking b WHERE b.item.owner.id = :userId AND b.status = :status" + KEYSET_PAGE)
+    List<Booking> findByOwnerIdAndStatus(Long userId, Status status, LocalDateTime afterStart, Long afterId, Limit limit);
 
-    @Query("SELECT b FROM Booking b WHERE b.item.owner.id = :userId AND b.end < CURRENT_TIMESTAMP")
-    List<Booking> findPastBookingsByOwnerId(Long userId);
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Optional<Booking> findWithItemAndBookerById(Long bookingId);
 
-    @Query("SELECT b FROM Booking b WHERE b.item.owner.id = :userId AND b.start > CURRENT_TIMESTAMP")
-    List<Booking> findFutureBookingsByOwnerId(Long userId);
+    @EntityGraph(attributePaths = {"item", "booker"})
+    List<Booking> findWithItemAndBookerByIdIn(Collection<Long> bookingIds);
 
-    @Query("SELECT b FROM Booking b WHERE b.item.owner.id = :userId AND b.status = :status")
-    List<Booking> findByOwnerIdAndStatus(Long userId, Status status);
+    /**
+     * Порядок по вещи: строки вещей блокируются по возрастанию id, как в сверке ссылок и пакетном создании
+     */
+    @EntityGraph(attributePaths = {"item", "booker"})
+    List<Booking> findWithItemAndBookerByIdInOrderByItemIdAscIdAsc(Collection<Long> bookingIds);
+
+    @Query("SELECT b.id AS id, b.item.id AS itemId, b.start AS start, b.end AS end FROM Booking b " +
+            "WHERE b.phase <> :phase AND b.id > :afterId ORDER BY b.id")
+    List<BookingPeriod> findPeriodsByPhaseNot(Phase phase, Long afterId, Limit limit);
+
+    @Query("SELECT b.id AS id, b.item.id AS itemId, b.start AS start, b.end AS end FROM Booking b " +
+            "WHERE b.status IN :statuses AND b.phase <> :phase AND b.id > :afterId ORDER BY b.id")
+    List<BookingPeriod> findPeriodsByStatusInAndPhaseNot(Collection<Status> statuses, Phase phase, Long afterId, Limit limit);
+
+    /**
+     * Бронирования, чья фаза в базе отстала от времени: начавшиеся до dueBefore в FUTURE и завершившиеся до dueBefore не в PAST
+     */
+    @Query("SELECT b.id FROM Booking b WHERE b.id > :afterId AND (" +
+            "b.phase = ru.practicum.shareit.booking.enums.Phase.FUTURE AND b.start <= :dueBefore OR " +
+            "b.phase <> ru.practicum.shareit.booking.enums.Phase.PAST AND b.end <= :dueBefore) ORDER BY b.id")
+    List<Long> findIdsWithStalePhase(LocalDateTime dueBefore, Long afterId, Limit limit);
 
     List<Booking> findByItemIdAndBookerId(Long itemId, Long userId);
 
-    @Query("SELECT b FROM Booking b WHERE b.item.id = :itemId AND b.end < CURRENT_TIMESTAMP ORDER BY b.end DESC")
-    List<Booking> findLastBookingsByItemId(Long itemId);
+    boolean existsByItemIdAndStatusInAndStartBeforeAndEndAfter(Long itemId, Collection<Status> statuses, LocalDateTime end, LocalDateTime start);
+
+    List<Booking> findByItemIdInAndStatusInAndStartBeforeAndEndAfter(Collection<Long> itemIds, Collection<Status> statuses,
+                                                                      LocalDateTime end, LocalDateTime start);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Optional<Booking> findFirstByItemIdAndEndBeforeOrderByEndDesc(Long itemId, LocalDateTime now);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Optional<Booking> findFirstByItemIdAndStartAfterOrderByStartAsc(Long itemId, LocalDateTime now);
+
+    @Query("SELECT b FROM Booking b JOIN FETCH b.booker WHERE b.item.id IN :itemIds AND b.end = " +
+            "(SELECT MAX(l.end) FROM Booking l WHERE l.item.id = b.item.id AND l.end < :now) ORDER BY b.id")
+    List<Booking> findLastBookingsByItemIds(Collection<Long> itemIds, LocalDateTime now);
 
-    @Query("SELECT b FROM Booking b WHERE b.item.id = :itemId AND b.start > CURRENT_TIMESTAMP ORDER BY b.start ASC")
-    List<Booking> findNextBookingsByItemId(Long itemId);
+    @Query("SELECT b FROM Booking b JOIN FETCH b.booker WHERE b.item.id IN :itemIds AND b.start = " +
+            "(SELECT MIN(n.start) FROM Booking n WHERE n.item.id = b.item.id AND n.start > :now) ORDER BY b.id")
+    List<Booking> findNextBookingsByItemIds(Collection<Long> itemIds, LocalDateTime now);
 }
@@ -1,19 +1,28 @@
 package ru.practicum.shareit.booking.service;
 
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.CreateBookingDto;
 import ru.practicum.shareit.booking.enums.State;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface BookingService {
     BookingDto create(CreateBookingDto createBookingDto, Long userId);
 
+    List<BookingBatchResultDto> createAll(List<CreateBookingDto> createBookingDtos, Long userId);
+
     BookingDto update(Long bookingId, boolean approved, Long userId);
 
+    List<BookingBatchResultDto> updateAll(List<Long> bookingIds, boolean approved, Long userId);
+
     BookingDto getBookingById(Long bookingId, Long userId);
 
-    List<BookingDto> getAllBookings(Long userId, State state);
+    List<BookingDto> getAllBookings(Long userId, State state, LocalDateTime afterStart, Long afterId, int size);
+
+    List<BookingDto> getBookingsForOwner(Long userId, State state, LocalDateTime afterStart, Long afterId, int size);
 
-    List<BookingDto> getBookingsForOwner(Long userId, State state);
+    SseEmitter subscribe(Long userId);
 }
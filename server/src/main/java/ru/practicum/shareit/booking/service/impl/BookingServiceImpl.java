@@ -2,41 +2,65 @@ package ru.practicum.shareit.booking.service.impl;
 
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.CreateBookingDto;
+import ru.practicum.shareit.booking.enums.Phase;
 import ru.practicum.shareit.booking.enums.State;
 import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.booking.event.BookingEvent;
+import ru.practicum.shareit.booking.event.BookingEventRelay;
+import ru.practicum.shareit.booking.event.BookingEventRepository;
+import ru.practicum.shareit.booking.lifecycle.BookingLifecycleScheduler;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.UnavailableDataException;
+import ru.practicum.shareit.item.availability.ItemAvailabilityIndex;
+import ru.practicum.shareit.item.cache.ItemCache;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.pointer.ItemBookingPointers;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.logging.ServiceLog;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
-import java.util.List;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 @AllArgsConstructor
 public class BookingServiceImpl implements BookingService {
+    private static final Set<Status> ACTIVE_STATUSES = EnumSet.of(Status.WAITING, Status.APPROVED);
+    private static final LocalDateTime FIRST_PAGE_START = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
 
     private final BookingRepository bookingRepository;
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
+    private final BookingEventRepository bookingEventRepository;
+    private final BookingEventRelay bookingEventRelay;
+    private final BookingLifecycleScheduler bookingLifecycleScheduler;
+    private final ItemAvailabilityIndex itemAvailabilityIndex;
+    private final ItemBookingPointers itemBookingPointers;
     private final BookingMapper bookingMapper;
+    private final ItemCache itemCache;
 
     @Override
     @Transactional
     public BookingDto create(CreateBookingDto createBookingDto, Long userId) {
-        log.debug("Обработка запроса на добавление бронирования: {}", createBookingDto);
+        ServiceLog.debug(log, "Обработка запроса на добавление бронирования: {}", createBookingDto);
 
-        Item item = itemRepository.findById(createBookingDto.getItemId()).orElseThrow(() -> new NotFoundException("Вещь не найдена"));
+        // Блокировка строки вещи сериализует бронирования только этой вещи и защищает проверку пересечений от гонок
+        Item item = itemRepository.findByIdForUpdate(createBookingDto.getItemId()).orElseThrow(() -> new NotFoundException("Вещь не найдена"));
         if (!item.getAvailable()) {
             throw new UnavailableDataException("Вещь недоступна для бронирования");
         }
@@ -46,22 +70,113 @@ public class BookingServiceImpl implements BookingService {
             throw new UnavailableDataException("Нельзя забронировать свою же вещь");
         }
 
+        if (bookingRepository.existsByItemIdAndStatusInAndStartBeforeAndEndAfter(item.getId(), ACTIVE_STATUSES,
+                createBookingDto.getEnd(), createBookingDto.getStart())) {
+            log.warn("Попытка бронирования вещи с id: {} на занятый период {} - {}", item.getId(), createBookingDto.getStart(), createBookingDto.getEnd());
+            throw new UnavailableDataException("Вещь уже забронирована на указанный период");
+        }
+
         Booking booking = bookingMapper.toBooking(createBookingDto, item, booker);
         booking.setItem(item);
         booking.setBooker(booker);
         bookingRepository.save(booking);
+        bookingEventRepository.save(bookingMapper.toBookingEvent(booking));
+        bookingLifecycleScheduler.schedule(booking);
+        itemAvailabilityIndex.add(booking);
+        itemBookingPointers.created(booking, LocalDateTime.now());
+        itemCache.evictOwnerBookings(item.getId());
         BookingDto createdBooking = bookingMapper.toBookingDto(booking);
 
-        log.debug("Бронирование успешно создано: {}", createdBooking);
+        ServiceLog.debug(log, "Бронирование успешно создано: {}", createdBooking);
         return createdBooking;
     }
 
+    /**
+     * Пакетное бронирование в одной транзакции. Элементы проверяются по отдельности, как в create,
+     * в том числе на пересечение друг с другом; принятые вставляются одним JDBC-пакетом
+     */
+    @Override
+    @Transactional
+    public List<BookingBatchResultDto> createAll(List<CreateBookingDto> createBookingDtos, Long userId) {
+        ServiceLog.debug(log, "Обработка запроса на пакетное добавление бронирований: {} пользователем: {}", createBookingDtos, userId);
+
+        User booker = userRepository.findById(userId).orElseThrow(() -> new NotFoundException("Пользователь не найден"));
+        Set<Long> itemIds = createBookingDtos.stream()
+                .map(CreateBookingDto::getItemId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, Item> items = itemIds.isEmpty() ? Map.of() : itemRepository.findAllByIdForUpdate(itemIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        Map<Long, List<Booking>> occupied = findOccupied(itemIds, createBookingDtos);
+
+        BookingBatchResultDto[] results = new BookingBatchResultDto[createBookingDtos.size()];
+        Map<Integer, Booking> accepted = new LinkedHashMap<>();
+        for (int i = 0; i < createBookingDtos.size(); i++) {
+            CreateBookingDto dto = createBookingDtos.get(i);
+            Item item = dto.getItemId() != null ? items.get(dto.getItemId()) : null;
+            String error = validate(dto, item, booker, occupied);
+            if (error != null) {
+                results[i] = failed(i, error);
+                continue;
+            }
+            Booking booking = bookingMapper.toBooking(dto, item, booker);
+            occupied.computeIfAbsent(item.getId(), id -> new ArrayList<>()).add(booking);
+            accepted.put(i, booking);
+        }
+
+        bookingRepository.insertAll(new ArrayList<>(accepted.values()));
+        bookingEventRepository.saveAll(accepted.values().stream().map(bookingMapper::toBookingEvent).toList());
+        LocalDateTime now = LocalDateTime.now();
+        accepted.forEach((i, booking) -> {
+            bookingLifecycleScheduler.schedule(booking);
+            itemAvailabilityIndex.add(booking);
+            itemBookingPointers.created(booking, now);
+            itemCache.evictOwnerBookings(booking.getItem().getId());
+            results[i] = succeeded(i, booking);
+        });
+
+        List<BookingBatchResultDto> resultList = Arrays.asList(results);
+        ServiceLog.debugList(log, "Пакетное бронирование пользователем: {}, обработано: {}. Результаты: {}", userId, resultList);
+        return resultList;
+    }
+
+    private Map<Long, List<Booking>> findOccupied(Set<Long> itemIds, List<CreateBookingDto> createBookingDtos) {
+        Optional<LocalDateTime> from = createBookingDtos.stream().map(CreateBookingDto::getStart).filter(Objects::nonNull).min(Comparator.naturalOrder());
+        Optional<LocalDateTime> to = createBookingDtos.stream().map(CreateBookingDto::getEnd).filter(Objects::nonNull).max(Comparator.naturalOrder());
+        if (itemIds.isEmpty() || from.isEmpty() || to.isEmpty()) {
+            return new HashMap<>();
+        }
+        return bookingRepository.findByItemIdInAndStatusInAndStartBeforeAndEndAfter(itemIds, ACTIVE_STATUSES, to.get(), from.get()).stream()
+                .collect(Collectors.groupingBy(booking -> booking.getItem().getId(), HashMap::new, Collectors.toCollection(ArrayList::new)));
+    }
+
+    private static String validate(CreateBookingDto dto, Item item, User booker, Map<Long, List<Booking>> occupied) {
+        if (item == null) {
+            return "Вещь не найдена";
+        }
+        if (dto.getStart() == null || dto.getEnd() == null || !dto.getStart().isBefore(dto.getEnd())) {
+            return "Некорректный период бронирования";
+        }
+        if (!item.getAvailable()) {
+            return "Вещь недоступна для бронирования";
+        }
+        if (item.getOwner().getId().equals(booker.getId())) {
+            return "Нельзя забронировать свою же вещь";
+        }
+        boolean overlaps = occupied.getOrDefault(item.getId(), List.of()).stream()
+                .anyMatch(booking -> booking.getStart().isBefore(dto.getEnd()) && booking.getEnd().isAfter(dto.getStart()));
+        if (overlaps) {
+            return "Вещь уже забронирована на указанный период";
+        }
+        return null;
+    }
+
     @Override
     @Transactional
     public BookingDto update(Long bookingId, boolean approved, Long userId) {
-        log.debug("Обработка запроса на обновление статуса бронирования с {} на {}", bookingId, approved);
+        ServiceLog.debug(log, "Обработка запроса на обновление статуса бронирования с {} на {}", bookingId, approved);
 
-        Booking booking = bookingRepository.findById(bookingId).orElseThrow(() -> new NotFoundException("Бронирование не найдено"));
+        Booking booking = bookingRepository.findWithItemAndBookerById(bookingId).orElseThrow(() -> new NotFoundException("Бронирование не найдено"));
 
         if (!booking.getItem().getOwner().getId().equals(userId)) {
             throw new UnavailableDataException("Только владелец вещи может изменить статус бронирования");
@@ -72,19 +187,76 @@ public class BookingServiceImpl implements BookingService {
         }
 
         booking.setStatus(approved ? Status.APPROVED : Status.REJECTED);
+        if (!approved) {
+            itemAvailabilityIndex.remove(booking);
+        }
         bookingRepository.save(booking);
+        bookingEventRepository.save(bookingMapper.toBookingEvent(booking));
+        itemCache.evictOwnerBookings(booking.getItem().getId());
         BookingDto updatedBooking = bookingMapper.toBookingDto(booking);
 
-        log.debug("Статус бронирования обновлён: {}", updatedBooking);
+        ServiceLog.debug(log, "Статус бронирования обновлён: {}", updatedBooking);
         return updatedBooking;
     }
 
+    /**
+     * Пакетное подтверждение или отклонение в одной транзакции. Бронирования читаются одним запросом,
+     * изменения статусов уходят в базу пакетом UPDATE при фиксации транзакции (hibernate.jdbc.batch_size)
+     */
+    @Override
+    @Transactional
+    public List<BookingBatchResultDto> updateAll(List<Long> bookingIds, boolean approved, Long userId) {
+        ServiceLog.debug(log, "Обработка запроса на пакетное обновление статуса бронирований {} на {} пользователем: {}", bookingIds, approved, userId);
+
+        Map<Long, Booking> bookings = bookingIds.isEmpty() ? Map.of() : bookingRepository.findWithItemAndBookerByIdIn(bookingIds).stream()
+                .collect(Collectors.toMap(Booking::getId, Function.identity()));
+
+        List<BookingBatchResultDto> results = new ArrayList<>(bookingIds.size());
+        List<BookingEvent> events = new ArrayList<>();
+        for (int i = 0; i < bookingIds.size(); i++) {
+            Booking booking = bookingIds.get(i) != null ? bookings.get(bookingIds.get(i)) : null;
+            if (booking == null) {
+                results.add(failed(i, "Бронирование не найдено"));
+            } else if (!booking.getItem().getOwner().getId().equals(userId)) {
+                results.add(failed(i, "Только владелец вещи может изменить статус бронирования"));
+            } else if (!booking.getStatus().equals(Status.WAITING)) {
+                results.add(failed(i, "Нельзя изменить статус бронирования, если оно уже обработано"));
+            } else {
+                booking.setStatus(approved ? Status.APPROVED : Status.REJECTED);
+                if (!approved) {
+                    itemAvailabilityIndex.remove(booking);
+                }
+                events.add(bookingMapper.toBookingEvent(booking));
+                itemCache.evictOwnerBookings(booking.getItem().getId());
+                results.add(succeeded(i, booking));
+            }
+        }
+        bookingEventRepository.saveAll(events);
+
+        ServiceLog.debugList(log, "Пакетное обновление статусов пользователем: {}, обработано: {}. Результаты: {}", userId, results);
+        return results;
+    }
+
+    private BookingBatchResultDto succeeded(int index, Booking booking) {
+        return BookingBatchResultDto.builder()
+                .index(index)
+                .booking(bookingMapper.toBookingDto(booking))
+                .build();
+    }
+
+    private static BookingBatchResultDto failed(int index, String error) {
+        return BookingBatchResultDto.builder()
+                .index(index)
+                .error(error)
+                .build();
+    }
+
     @Override
     @Transactional(readOnly = true)
     public BookingDto getBookingById(Long bookingId, Long userId) {
-        log.debug("Обработка запроса на получение данных о конкретном бронировании: {}", bookingId);
+        ServiceLog.debug(log, "Обработка запроса на получение данных о конкретном бронировании: {}", bookingId);
 
-        Booking booking = bookingRepository.findById(bookingId).orElseThrow(() -> new NotFoundException("Бронирование не найдено"));
+        Booking booking = bookingRepository.findWithItemAndBookerById(bookingId).orElseThrow(() -> new NotFoundException("Бронирование не найдено"));
 
         if (!booking.getBooker().getId().equals(userId) && !booking.getItem().getOwner().getId().equals(userId)) {
             throw new UnavailableDataException("Доступ к бронированию запрещён");
@@ -92,24 +264,27 @@ public class BookingServiceImpl implements BookingService {
 
         BookingDto foundBooking = bookingMapper.toBookingDto(booking);
 
-        log.debug("Получено бронирование: {}", foundBooking);
+        ServiceLog.debug(log, "Получено бронирование: {}", foundBooking);
         return foundBooking;
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<BookingDto> getAllBookings(Long userId, State state) {
-        log.debug("Обработка запроса на получение списка всех бронирований пользователя: {} со статусом {}", userId, state);
+    public List<BookingDto> getAllBookings(Long userId, State state, LocalDateTime afterStart, Long afterId, int size) {
+        ServiceLog.debug(log, "Обработка запроса на получение списка всех бронирований пользователя: {} со статусом {}, после: {}/{}", userId, state, afterStart, afterId);
 
         userRepository.findById(userId).orElseThrow(() -> new NotFoundException("Пользователь не найден"));
 
+        LocalDateTime start = afterStart != null ? afterStart : FIRST_PAGE_START;
+        Long id = afterId != null ? afterId : Long.MAX_VALUE;
+        Limit limit = Limit.of(size);
         List<Booking> bookings = switch (state) {
-            case CURRENT -> bookingRepository.findCurrentBookingsByBookerId(userId);
-            case PAST -> bookingRepository.findPastBookingsByBookerId(userId);
-            case FUTURE -> bookingRepository.findFutureBookingsByBookerId(userId);
-            case WAITING -> bookingRepository.findByBookerIdAndStatus(userId, Status.WAITING);
-            case REJECTED -> bookingRepository.findByBookerIdAndStatus(userId, Status.REJECTED);
-            default -> bookingRepository.findByBookerIdOrderByStartDesc(userId);
+            case CURRENT -> bookingRepository.findByBookerIdAndPhase(userId, Phase.CURRENT, start, id, limit);
+            case PAST -> bookingRepository.findByBookerIdAndPhase(userId, Phase.PAST, start, id, limit);
+            case FUTURE -> bookingRepository.findByBookerIdAndPhase(userId, Phase.FUTURE, start, id, limit);
+            case WAITING -> bookingRepository.findByBookerIdAndStatus(userId, Status.WAITING, start, id, limit);
+            case REJECTED -> bookingRepository.findByBookerIdAndStatus(userId, Status.REJECTED, start, id, limit);
+            default -> bookingRepository.findAllBookingsByBookerId(userId, start, id, limit);
         };
 
         return bookings.stream().map(bookingMapper::toBookingDto).toList();
@@ -117,20 +292,34 @@ public class BookingServiceImpl implements BookingService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<BookingDto> getBookingsForOwner(Long userId, State state) {
-        log.debug("Обработка запроса на получение списка бронирований для всех вещей пользователя: {} со статусом {}", userId, state);
+    public List<BookingDto> getBookingsForOwner(Long userId, State state, LocalDateTime afterStart, Long afterId, int size) {
+        ServiceLog.debug(log, "Обработка запроса на получение списка бронирований для всех вещей пользователя: {} со статусом {}, после: {}/{}", userId, state, afterStart, afterId);
 
         userRepository.findById(userId).orElseThrow(() -> new NotFoundException("Пользователь не найден"));
 
+        LocalDateTime start = afterStart != null ? afterStart : FIRST_PAGE_START;
+        Long id = afterId != null ? afterId : Long.MAX_VALUE;
+        Limit limit = Limit.of(size);
         List<Booking> bookings = switch (state) {
-            case CURRENT -> bookingRepository.findCurrentBookingsByOwnerId(userId);
-            case PAST -> bookingRepository.findPastBookingsByOwnerId(userId);
-            case FUTURE -> bookingRepository.findFutureBookingsByOwnerId(userId);
-            case WAITING -> bookingRepository.findByOwnerIdAndStatus(userId, Status.WAITING);
-            case REJECTED -> bookingRepository.findByOwnerIdAndStatus(userId, Status.REJECTED);
-            default -> bookingRepository.findByOwnerIdOrderByStartDesc(userId);
+            case CURRENT -> bookingRepository.findByOwnerIdAndPhase(userId, Phase.CURRENT, start, id, limit);
+            case PAST -> bookingRepository.findByOwnerIdAndPhase(userId, Phase.PAST, start, id, limit);
+            case FUTURE -> bookingRepository.findByOwnerIdAndPhase(userId, Phase.FUTURE, start, id, limit);
+            case WAITING -> bookingRepository.findByOwnerIdAndStatus(userId, Status.WAITING, start, id, limit);
+            case REJECTED -> bookingRepository.findByOwnerIdAndStatus(userId, Status.REJECTED, start, id, limit);
+            default -> bookingRepository.findAllBookingsByOwnerId(userId, start, id, limit);
         };
 
         return bookings.stream().map(bookingMapper::toBookingDto).toList();
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public SseEmitter subscribe(Long userId) {
+        ServiceLog.debug(log, "Обработка запроса на подписку на события бронирований пользователем: {}", userId);
+
+        if (!userRepository.existsById(userId)) {
+            throw new NotFoundException("Пользователь не найден");
+        }
+        return bookingEventRelay.subscribe(userId);
+    }
 }
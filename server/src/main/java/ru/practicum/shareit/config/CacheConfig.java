@@ -0,0 +1,55 @@
+package ru.practicum.shareit.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.practicum.shareit.item.cache.ItemCache;
+
+import java.util.List;
+
+/**
+ * Caffeine-кэши сервера. Размер и время жизни каждого кэша задаются спецификацией Caffeine в application.properties,
+ * статистика (recordStats) публикуется в actuator как метрики cache.gets, cache.puts, cache.evictions.
+ * Туда же публикуется статистика регионов кэша второго уровня Hibernate
+ */
+@Configuration
+public class CacheConfig {
+
+    @Bean
+    public CacheManager cacheManager(@Value("${shareit.cache.item-details}") String itemDetailsSpec,
+                                     @Value("${shareit.cache.item-owner-bookings}") String itemOwnerBookingsSpec) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.registerCustomCache(ItemCache.DETAILS, Caffeine.from(itemDetailsSpec).build());
+        cacheManager.registerCustomCache(ItemCache.OWNER_BOOKINGS, Caffeine.from(itemOwnerBookingsSpec).build());
+        return cacheManager;
+    }
+
+    /**
+     * Статистика регионов кэша второго уровня Hibernate (monitoring.statistics в application.conf) под теми же
+     * метриками cache.gets, cache.puts, cache.evictions с тегом cache.manager=hibernate и именем региона в теге cache.
+     * Не зависит от hibernate.generate_statistics и остаётся в prod при выключенной статистике Hibernate
+     */
+    @Bean
+    public MeterBinder hibernateCacheRegionMetrics(EntityManagerFactory entityManagerFactory) {
+        return registry -> {
+            RegionFactory regionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getCache().getRegionFactory();
+            if (!(regionFactory instanceof JCacheRegionFactory jCacheRegionFactory)) {
+                return;
+            }
+            javax.cache.CacheManager cacheManager = jCacheRegionFactory.getCacheManager();
+            for (String cacheName : cacheManager.getCacheNames()) {
+                JCacheMetrics.monitor(registry, cacheManager.getCache(cacheName), List.of(Tag.of("cache.manager", "hibernate")));
+            }
+        };
+    }
+}
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Фоновые задачи по расписанию выполняются планировщиком Spring Boot с пулом из spring.task.scheduling.pool.size
+ * потоков, чтобы долгая сверка или пачка переходов бронирований не задерживала рассылку событий.
+ * Запуски одной и той же задачи по-прежнему не пересекаются
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -17,6 +17,13 @@ public class ExceptionHandler {
         return new ErrorResponse(e.getMessage());
     }
 
+    @org.springframework.web.bind.annotation.ExceptionHandler
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ErrorResponse handleValidationException(final ValidationException e) {
+        log.error("Error 400: {}", e.getMessage());
+        return new ErrorResponse(e.getMessage());
+    }
+
     @org.springframework.web.bind.annotation.ExceptionHandler
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
     public ErrorResponse handleUnavailableDataException(final UnavailableDataException e) {
@@ -0,0 +1,151 @@
+package ru.practicum.shareit.item.availability;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.BiConsumer;
+
+/**
+ * Дерево интервалов бронирований одной вещи: декартово дерево по (начало, id бронирования),
+ * каждый узел хранит максимальное окончание в своём поддереве. Вставка и удаление - O(log n) в среднем.
+ * Выборка k пересекающихся с окном интервалов отсекает поддеревья по максимальному окончанию и по началу, поэтому обходит
+ * только путь к правой границе окна и предков найденных узлов. Бронирования одной вещи почти не пересекаются,
+ * их окончания растут вместе с началом, найденные узлы идут подряд в порядке ключа, и выборка занимает O(log n + k).
+ * Если найденные интервалы перемежаются с не найденными (длинное бронирование среди коротких), оценка - O(log n + k * log n).
+ * Не потокобезопасно
+ */
+final class IntervalTree {
+    private Node root;
+    private int size;
+
+    /**
+     * Добавление интервала. Повторное добавление того же бронирования с тем же началом заменяет прежний интервал
+     */
+    void insert(long bookingId, LocalDateTime start, LocalDateTime end) {
+        remove(bookingId, start);
+        Node[] parts = split(root, start, bookingId);
+        root = merge(merge(parts[0], new Node(bookingId, start, end)), parts[1]);
+        size++;
+    }
+
+    boolean remove(long bookingId, LocalDateTime start) {
+        int before = size;
+        root = remove(root, start, bookingId);
+        return size < before;
+    }
+
+    /**
+     * Интервалы, пересекающиеся с [from, to), в порядке начала
+     */
+    void query(LocalDateTime from, LocalDateTime to, BiConsumer<LocalDateTime, LocalDateTime> sink) {
+        query(root, from, to, sink);
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    private Node remove(Node node, LocalDateTime start, long bookingId) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = compare(node, start, bookingId);
+        if (cmp == 0) {
+            size--;
+            return merge(node.left, node.right);
+        }
+        if (cmp > 0) {
+            node.left = remove(node.left, start, bookingId);
+        } else {
+            node.right = remove(node.right, start, bookingId);
+        }
+        node.update();
+        return node;
+    }
+
+    private static void query(Node node, LocalDateTime from, LocalDateTime to, BiConsumer<LocalDateTime, LocalDateTime> sink) {
+        if (node == null || !node.maxEnd.isAfter(from)) {
+            return;
+        }
+        query(node.left, from, to, sink);
+        if (!node.start.isBefore(to)) {
+            return;
+        }
+        if (node.end.isAfter(from)) {
+            sink.accept(node.start, node.end);
+        }
+        query(node.right, from, to, sink);
+    }
+
+    /**
+     * Разрезание на узлы меньше ключа и не меньше ключа
+     */
+    private static Node[] split(Node node, LocalDateTime start, long bookingId) {
+        if (node == null) {
+            return new Node[2];
+        }
+        if (compare(node, start, bookingId) < 0) {
+            Node[] parts = split(node.right, start, bookingId);
+            node.right = parts[0];
+            node.update();
+            parts[0] = node;
+            return parts;
+        }
+        Node[] parts = split(node.left, start, bookingId);
+        node.left = parts[1];
+        node.update();
+        parts[1] = node;
+        return parts;
+    }
+
+    /**
+     * Слияние деревьев, все ключи left меньше ключей right
+     */
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            left.update();
+            return left;
+        }
+        right.left = merge(left, right.left);
+        right.update();
+        return right;
+    }
+
+    private static int compare(Node node, LocalDateTime start, long bookingId) {
+        int cmp = node.start.compareTo(start);
+        return cmp != 0 ? cmp : Long.compare(node.bookingId, bookingId);
+    }
+
+    private static final class Node {
+        private final long bookingId;
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+        private final int priority = ThreadLocalRandom.current().nextInt();
+        private LocalDateTime maxEnd;
+        private Node left;
+        private Node right;
+
+        Node(long bookingId, LocalDateTime start, LocalDateTime end) {
+            this.bookingId = bookingId;
+            this.start = start;
+            this.end = end;
+            this.maxEnd = end;
+        }
+
+        void update() {
+            maxEnd = end;
+            if (left != null && left.maxEnd.isAfter(maxEnd)) {
+                maxEnd = left.maxEnd;
+            }
+            if (right != null && right.maxEnd.isAfter(maxEnd)) {
+                maxEnd = right.maxEnd;
+            }
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package ru.practicum.shareit.item.availability;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.enums.Phase;
+import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingPeriod;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Занятость вещей по незавершённым бронированиям в статусах WAITING и APPROVED, по дереву интервалов на вещь.
+ * Завершённые, отклонённые и отменённые бронирования из индекса удаляются
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ItemAvailabilityIndex {
+    public static final Set<Status> BUSY_STATUSES = EnumSet.of(Status.WAITING, Status.APPROVED);
+    private static final int LOAD_PAGE_SIZE = 1000;
+
+    private final BookingRepository bookingRepository;
+
+    private final Map<Long, IntervalTree> trees = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            trees.clear();
+            int loaded = 0;
+            long afterId = 0;
+            List<BookingPeriod> page;
+            do {
+                page = bookingRepository.findPeriodsByStatusInAndPhaseNot(BUSY_STATUSES, Phase.PAST, afterId, Limit.of(LOAD_PAGE_SIZE));
+                for (BookingPeriod period : page) {
+                    put(period.getItemId(), period.getId(), period.getStart(), period.getEnd());
+                    afterId = period.getId();
+                }
+                loaded += page.size();
+            } while (page.size() == LOAD_PAGE_SIZE);
+            log.info("Индекс занятости вещей построен, бронирований: {}, вещей: {}", loaded, trees.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Учёт нового бронирования. При откате текущей транзакции бронирование будет удалено из индекса
+     */
+    public void add(Booking booking) {
+        Long itemId = booking.getItem().getId();
+        Long bookingId = booking.getId();
+        LocalDateTime start = booking.getStart();
+        lock.writeLock().lock();
+        try {
+            put(itemId, bookingId, start, booking.getEnd());
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        delete(itemId, bookingId, start);
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Бронирование больше не занимает вещь. В транзакции удаляется после фиксации
+     */
+    public void remove(Booking booking) {
+        Long itemId = booking.getItem().getId();
+        Long bookingId = booking.getId();
+        LocalDateTime start = booking.getStart();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            delete(itemId, bookingId, start);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                delete(itemId, bookingId, start);
+            }
+        });
+    }
+
+    /**
+     * Занятые промежутки вещи внутри [from, to) по возрастанию, пересекающиеся и смежные бронирования объединены
+     */
+    public List<Interval> busy(Long itemId, LocalDateTime from, LocalDateTime to) {
+        List<Interval> busy = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            IntervalTree tree = trees.get(itemId);
+            if (tree == null) {
+                return busy;
+            }
+            tree.query(from, to, (start, end) -> {
+                LocalDateTime clippedStart = start.isBefore(from) ? from : start;
+                LocalDateTime clippedEnd = end.isAfter(to) ? to : end;
+                if (!busy.isEmpty() && !busy.getLast().end().isBefore(clippedStart)) {
+                    Interval last = busy.getLast();
+                    if (clippedEnd.isAfter(last.end())) {
+                        busy.set(busy.size() - 1, new Interval(last.start(), clippedEnd));
+                    }
+                } else {
+                    busy.add(new Interval(clippedStart, clippedEnd));
+                }
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+        return busy;
+    }
+
+    private void put(Long itemId, Long bookingId, LocalDateTime start, LocalDateTime end) {
+        trees.computeIfAbsent(itemId, id -> new IntervalTree()).insert(bookingId, start, end);
+    }
+
+    private void delete(Long itemId, Long bookingId, LocalDateTime start) {
+        lock.writeLock().lock();
+        try {
+            IntervalTree tree = trees.get(itemId);
+            if (tree != null && tree.remove(bookingId, start) && tree.isEmpty()) {
+                trees.remove(itemId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public record Interval(LocalDateTime start, LocalDateTime end) {
+    }
+}
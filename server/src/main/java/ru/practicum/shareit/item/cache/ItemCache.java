@@ -0,0 +1,160 @@
+package ru.practicum.shareit.item.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Кэш информации о вещи для getItemById. Общая часть и бронирования владельца хранятся отдельно,
+ * поэтому общая часть одна на всех пользователей.
+ * Записи сбрасываются сразу и ещё раз после завершения транзакции. Чтение, прочитавшее состояние до фиксации,
+ * не возвращает его в кэш: каждый сброс увеличивает поколение ключа, и загрузка, во время которой поколение сменилось,
+ * в кэше не остаётся
+ */
+@Component
+public class ItemCache {
+    public static final String DETAILS = "itemDetails";
+    public static final String OWNER_BOOKINGS = "itemOwnerBookings";
+
+    private static final int GENERATION_STRIPES = 1024;
+
+    private final GuardedCache details;
+    private final GuardedCache ownerBookings;
+
+    public ItemCache(CacheManager cacheManager) {
+        this.details = new GuardedCache(cacheManager.getCache(DETAILS));
+        this.ownerBookings = new GuardedCache(cacheManager.getCache(OWNER_BOOKINGS));
+    }
+
+    /**
+     * Общая часть вещи и, если запрашивает владелец, его бронирования. Недостающее берётся из одной загрузки:
+     * loader читает вещь вместе со ссылками на бронирования, и каждая часть кладётся в свой кэш.
+     * Поколения обоих ключей читаются до загрузки
+     */
+    public ItemView get(Long itemId, Long userId, LocalDateTime now, Supplier<ItemView> loader) {
+        ItemDetails cachedDetails = details.getIfPresent(itemId, ItemDetails.class, cached -> true);
+        if (cachedDetails != null && !cachedDetails.ownerId().equals(userId)) {
+            return new ItemView(cachedDetails, new OwnerBookings(null, null));
+        }
+        if (cachedDetails != null) {
+            OwnerBookings cachedBookings = ownerBookings.getIfPresent(itemId, OwnerBookings.class, cached -> cached.isActualAt(now));
+            if (cachedBookings != null) {
+                return new ItemView(cachedDetails, cachedBookings);
+            }
+        }
+
+        long detailsGeneration = details.generation(itemId);
+        long bookingsGeneration = ownerBookings.generation(itemId);
+        ItemView loaded = loader.get();
+        details.put(itemId, detailsGeneration, loaded.details());
+        ownerBookings.put(itemId, bookingsGeneration, loaded.ownerBookings());
+        return loaded.details().ownerId().equals(userId) ? loaded : new ItemView(loaded.details(), new OwnerBookings(null, null));
+    }
+
+    /**
+     * Изменились поля вещи: устаревают и общая часть, и бронирования владельца, в которые вложена вещь
+     */
+    public void evictItem(Long itemId) {
+        evict(details, itemId);
+        evict(ownerBookings, itemId);
+    }
+
+    public void evictDetails(Long itemId) {
+        evict(details, itemId);
+    }
+
+    public void evictOwnerBookings(Long itemId) {
+        evict(ownerBookings, itemId);
+    }
+
+    /**
+     * Полная очистка, когда затронуто неизвестное множество вещей (например, каскадное удаление вещей пользователя)
+     */
+    public void clear() {
+        details.clear();
+        ownerBookings.clear();
+        afterCompletion(() -> {
+            details.clear();
+            ownerBookings.clear();
+        });
+    }
+
+    private void evict(GuardedCache cache, Long itemId) {
+        cache.evict(itemId);
+        afterCompletion(() -> cache.evict(itemId));
+    }
+
+    private void afterCompletion(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * Кэш с поколениями сброса по ключам. Поколения хранятся полосами по хешу ключа,
+     * совпадение полос у разных ключей приводит лишь к лишнему промаху
+     */
+    private static final class GuardedCache {
+        private final Cache cache;
+        private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+        GuardedCache(Cache cache) {
+            this.cache = cache;
+        }
+
+        <T> T getIfPresent(Long key, Class<T> type, Predicate<T> actual) {
+            T cached = cache.get(key, type);
+            return cached != null && actual.test(cached) ? cached : null;
+        }
+
+        /**
+         * Поколение ключа читается до загрузки и передаётся в put
+         */
+        long generation(Long key) {
+            return generations.get(stripe(key));
+        }
+
+        /**
+         * Если поколение сменилось к концу загрузки, значение не кладётся в кэш,
+         * а если сменилось сразу после записи, запись убирается
+         */
+        void put(Long key, long generation, Object value) {
+            int stripe = stripe(key);
+            if (generations.get(stripe) == generation) {
+                cache.put(key, value);
+                if (generations.get(stripe) != generation) {
+                    cache.evict(key);
+                }
+            }
+        }
+
+        void evict(Long key) {
+            generations.incrementAndGet(stripe(key));
+            cache.evict(key);
+        }
+
+        void clear() {
+            for (int i = 0; i < GENERATION_STRIPES; i++) {
+                generations.incrementAndGet(i);
+            }
+            cache.clear();
+        }
+
+        private static int stripe(Long key) {
+            return Math.floorMod(Long.hashCode(key) * 0x9E3779B9, GENERATION_STRIPES);
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package ru.practicum.shareit.item.cache;
+
+import ru.practicum.shareit.item.dto.ItemByIdDto;
+
+/**
+ * Общая для всех пользователей часть информации о вещи: поля вещи и комментарии, без бронирований
+ */
+public record ItemDetails(Long ownerId, ItemByIdDto item) {
+}
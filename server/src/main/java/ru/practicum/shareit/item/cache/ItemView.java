@@ -0,0 +1,7 @@
+package ru.practicum.shareit.item.cache;
+
+/**
+ * Информация о вещи для getItemById: общая часть и бронирования владельца, пустые для остальных пользователей
+ */
+public record ItemView(ItemDetails details, OwnerBookings ownerBookings) {
+}
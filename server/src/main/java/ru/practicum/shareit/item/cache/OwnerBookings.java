@@ -0,0 +1,18 @@
+package ru.practicum.shareit.item.cache;
+
+import ru.practicum.shareit.booking.dto.BookingDto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Последнее и следующее бронирования вещи, которые видит только её владелец
+ */
+public record OwnerBookings(BookingDto lastBooking, BookingDto nextBooking) {
+
+    /**
+     * Следующее бронирование перестаёт быть следующим, как только оно началось
+     */
+    boolean isActualAt(LocalDateTime now) {
+        return nextBooking == null || nextBooking.getStart().isAfter(now);
+    }
+}
@@ -2,12 +2,15 @@ package ru.practicum.shareit.item.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.item.comment.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemByIdDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.service.impl.ItemServiceImpl;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Slf4j
@@ -45,21 +48,47 @@ public class ItemController {
     }
 
     /**
-     * Получение информации о всех вещах пользователя
+     * Получение информации о вещах пользователя, постранично по возрастанию id
      */
     @GetMapping
-    public List<ItemDto> getAllItems(@RequestHeader("X-Sharer-User-Id") Long userId) {
+    public List<ItemByIdDto> getAllItems(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                         @RequestParam(defaultValue = "0") Long after,
+                                         @RequestParam(defaultValue = "20") int size) {
         log.debug("Запрос на получение информации о всех вещах пользователя с id: {}", userId);
-        return itemService.getAllItems(userId);
+        return itemService.getAllItems(userId, after, size);
     }
 
     /**
-     * Поиск вещи
+     * Поиск вещи. Если заданы start и end, вещи с подтверждённым бронированием на этот период исключаются
      */
     @GetMapping("/search")
-    public List<ItemDto> searchItem(@RequestParam String text) {
-        log.debug("Запрос на поиск вещи: {}", text);
-        return itemService.searchItems(text);
+    public List<ItemDto> searchItem(@RequestParam String text,
+                                    @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+                                    @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
+        log.debug("Запрос на поиск вещи: {}, свободной с {} по {}", text, start, end);
+        return itemService.searchItems(text, start, end);
+    }
+
+    /**
+     * Свободные и занятые промежутки вещи в окне [from, to), по умолчанию - на сутки вперёд от текущего момента
+     */
+    @GetMapping("/{itemId}/availability")
+    public ItemAvailabilityDto getAvailability(@PathVariable Long itemId,
+                                               @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                               @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.debug("Запрос на получение занятости вещи: {} с {} по {}", itemId, from, to);
+        return itemService.getAvailability(itemId, from, to);
+    }
+
+    /**
+     * Занятость нескольких вещей в одном окне, несуществующие id пропускаются
+     */
+    @GetMapping("/availability")
+    public List<ItemAvailabilityDto> getAvailability(@RequestParam List<Long> ids,
+                                                     @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                     @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.debug("Запрос на получение занятости вещей: {} с {} по {}", ids, from, to);
+        return itemService.getAvailability(ids, from, to);
     }
 
     /**
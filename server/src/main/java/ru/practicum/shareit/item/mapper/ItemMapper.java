@@ -45,6 +45,18 @@ public class ItemMapper {
                 .build();
     }
 
+    public ItemByIdDto toItemDto(ItemByIdDto item, BookingDto lastBooking, BookingDto nextBooking) {
+        return ItemByIdDto.builder()
+                .id(item.getId())
+                .name(item.getName())
+                .description(item.getDescription())
+                .available(item.getAvailable())
+                .comments(item.getComments())
+                .lastBooking(lastBooking)
+                .nextBooking(nextBooking)
+                .build();
+    }
+
     public Item toItem(ItemDto itemDto, User owner) {
         return new Item(
                 itemDto.getId(),
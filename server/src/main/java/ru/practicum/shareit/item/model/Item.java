@@ -2,6 +2,10 @@ package ru.practicum.shareit.item.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
+import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.request.model.Request;
 import ru.practicum.shareit.user.model.User;
 
@@ -11,6 +15,9 @@ import ru.practicum.shareit.user.model.User;
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
+@DynamicUpdate
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "items")
 public class Item {
     @Id
@@ -26,14 +33,27 @@ public class Item {
     @Column(name = "available", nullable = false)
     private Boolean available;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "owner_id")
     private User owner;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "request_id")
     private Request request;
 
+    /**
+     * Последнее завершившееся и ближайшее будущее бронирования вещи. Хранятся в строке вещи, чтобы читаться вместе с ней,
+     * поддерживаются {@link ru.practicum.shareit.item.pointer.ItemBookingPointers}. Обновление пишет только изменённые
+     * столбцы, поэтому правка полей вещи не затирает сдвинутые параллельно ссылки
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "last_booking_id")
+    private Booking lastBooking;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "next_booking_id")
+    private Booking nextBooking;
+
     public Item(Long id, String name, String description, Boolean available, User owner) {
         this.id = id;
         this.name = name;
@@ -41,4 +61,9 @@ public class Item {
         this.available = available;
         this.owner = owner;
     }
+
+    public Item(Long id, String name, String description, Boolean available, User owner, Request request) {
+        this(id, name, description, available, owner);
+        this.request = request;
+    }
 }
@@ -0,0 +1,145 @@
+package ru.practicum.shareit.item.pointer;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.cache.ItemCache;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Ссылки вещи на последнее завершившееся и ближайшее будущее бронирование, хранящиеся в строке вещи.
+ * Создание бронирования меняет их в своей транзакции, таймеры начала и окончания бронирований сдвигают их
+ * со временем, а периодическая сверка с таблицей бронирований исправляет расхождения
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ItemBookingPointers {
+    private static final int RECONCILE_PAGE_SIZE = 500;
+
+    private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
+    private final ItemCache itemCache;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+
+    /**
+     * Новое бронирование становится ближайшим, если начинается раньше текущего ближайшего.
+     * Вызывается под блокировкой строки вещи, поэтому сравнение не гоняется с другими бронированиями вещи
+     */
+    public void created(Booking booking, LocalDateTime now) {
+        Item item = booking.getItem();
+        Booking next = item.getNextBooking();
+        if (booking.getStart().isAfter(now) && (next == null || booking.getStart().isBefore(next.getStart()))) {
+            item.setNextBooking(booking);
+        }
+        Booking last = item.getLastBooking();
+        if (booking.getEnd().isBefore(now) && (last == null || booking.getEnd().isAfter(last.getEnd()))) {
+            item.setLastBooking(booking);
+        }
+    }
+
+    /**
+     * Сдвиг ссылок по таймеру бронирования: начавшееся бронирование перестаёт быть ближайшим,
+     * завершившееся может стать последним. Ссылки пересчитываются под блокировкой строки вещи
+     */
+    public void advance(Booking booking, LocalDateTime now) {
+        Item item = booking.getItem();
+        Booking next = item.getNextBooking();
+        Booking last = item.getLastBooking();
+        boolean nextStarted = next != null && next.getId().equals(booking.getId()) && !booking.getStart().isAfter(now);
+        boolean lastEnded = booking.getEnd().isBefore(now) && (last == null
+                || !last.getId().equals(booking.getId()) && booking.getEnd().isAfter(last.getEnd()));
+        if (!nextStarted && !lastEnded) {
+            return;
+        }
+
+        entityManager.refresh(item, LockModeType.PESSIMISTIC_WRITE);
+        item.setNextBooking(bookingRepository.findFirstByItemIdAndStartAfterOrderByStartAsc(item.getId(), now).orElse(null));
+        item.setLastBooking(bookingRepository.findFirstByItemIdAndEndBeforeOrderByEndDesc(item.getId(), now).orElse(null));
+        itemCache.evictOwnerBookings(item.getId());
+    }
+
+    /**
+     * Сверка ссылок всех вещей с таблицей бронирований страницами по id. При старте заполняет ссылки
+     * после простоя, в работе исправляет пропущенные сдвиги и последствия гонок.
+     * Строки вещей блокируются только при исправлении, сверка без расхождений не мешает бронированиям
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${shareit.item-booking-pointers.reconcile-interval}",
+            initialDelayString = "${shareit.item-booking-pointers.reconcile-interval}")
+    public void reconcile() {
+        long afterId = 0;
+        int repaired = 0;
+        List<Long> page;
+        do {
+            page = itemRepository.findIdsAfter(afterId, Limit.of(RECONCILE_PAGE_SIZE));
+            if (page.isEmpty()) {
+                break;
+            }
+            List<Long> itemIds = page;
+            List<Long> drifted = Objects.requireNonNull(transactionTemplate.execute(status ->
+                    compare(itemRepository.findAllById(itemIds), LocalDateTime.now(), false)));
+            if (!drifted.isEmpty()) {
+                repaired += Objects.requireNonNull(transactionTemplate.execute(status ->
+                        compare(itemRepository.findAllByIdForUpdate(drifted), LocalDateTime.now(), true))).size();
+            }
+            afterId = page.getLast();
+        } while (page.size() == RECONCILE_PAGE_SIZE);
+
+        if (repaired > 0) {
+            log.info("Сверка ссылок вещей на бронирования завершена, исправлено вещей: {}", repaired);
+        } else {
+            log.debug("Сверка ссылок вещей на бронирования завершена, расхождений нет");
+        }
+    }
+
+    /**
+     * Вещи, чьи ссылки расходятся с таблицей бронирований на момент now. Страница сверяется без блокировок,
+     * блокируются и исправляются (repair) только разошедшиеся вещи, которые перед этим сверяются ещё раз
+     */
+    private List<Long> compare(List<Item> items, LocalDateTime now, boolean repair) {
+        List<Long> itemIds = items.stream().map(Item::getId).toList();
+        Map<Long, Booking> lastBookings = bookingRepository.findLastBookingsByItemIds(itemIds, now).stream()
+                .collect(Collectors.toMap(booking -> booking.getItem().getId(), booking -> booking, (first, second) -> first));
+        Map<Long, Booking> nextBookings = bookingRepository.findNextBookingsByItemIds(itemIds, now).stream()
+                .collect(Collectors.toMap(booking -> booking.getItem().getId(), booking -> booking, (first, second) -> first));
+
+        List<Long> drifted = new ArrayList<>();
+        for (Item item : items) {
+            Booking last = lastBookings.get(item.getId());
+            Booking next = nextBookings.get(item.getId());
+            if (Objects.equals(idOf(item.getLastBooking()), idOf(last)) && Objects.equals(idOf(item.getNextBooking()), idOf(next))) {
+                continue;
+            }
+            drifted.add(item.getId());
+            if (repair) {
+                item.setLastBooking(last);
+                item.setNextBooking(next);
+                itemCache.evictOwnerBookings(item.getId());
+            }
+        }
+        return drifted;
+    }
+
+    private static Long idOf(Booking booking) {
+        return booking != null ? booking.getId() : null;
+    }
+}
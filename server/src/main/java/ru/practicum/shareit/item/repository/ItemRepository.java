@@ -1,12 +1,57 @@
 package ru.practicum.shareit.item.repository;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.enums.Status;
 import ru.practicum.shareit.item.model.Item;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ItemRepository extends JpaRepository<Item, Long> {
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     List<Item> findByRequestId(Long requestId);
+
+    boolean existsByRequestId(Long requestId);
+
+    List<Item> findByRequestIdIn(Collection<Long> requestIds);
+
+    @EntityGraph(attributePaths = {"lastBooking", "lastBooking.booker", "nextBooking", "nextBooking.booker"})
+    List<Item> findByOwnerIdAndIdGreaterThanOrderByIdAsc(Long ownerId, Long id, Limit limit);
+
+    @EntityGraph(attributePaths = {"lastBooking", "lastBooking.booker", "nextBooking", "nextBooking.booker"})
+    Optional<Item> findWithBookingsById(Long itemId);
+
+    @Query("SELECT i.id FROM Item i WHERE i.id > :afterId ORDER BY i.id")
+    List<Long> findIdsAfter(Long afterId, Limit limit);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Item i WHERE i.id = :itemId")
+    Optional<Item> findByIdForUpdate(Long itemId);
+
+    /**
+     * Блокировка строк в порядке id, чтобы пересекающиеся пакеты бронирований не блокировали друг друга взаимно
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Item i WHERE i.id IN :itemIds ORDER BY i.id")
+    List<Item> findAllByIdForUpdate(Collection<Long> itemIds);
+
+    /**
+     * Вещи из списка без бронирований в статусе status, пересекающихся с [start, end).
+     * Анти-соединение с bookings выполняется в базе по индексам бронирований вещи, без запроса на каждую вещь
+     */
+    @Query("SELECT i FROM Item i WHERE i.id IN :itemIds AND NOT EXISTS (SELECT b.id FROM Booking b " +
+            "WHERE b.item = i AND b.status = :status AND b.start < :end AND b.end > :start)")
+    List<Item> findAllByIdWithoutBookingsBetween(Collection<Long> itemIds, Status status, LocalDateTime start, LocalDateTime end);
 }
@@ -0,0 +1,221 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
+
+/**
+ * Инвертированный индекс по названию и описанию вещей.
+ * Запросы от трёх символов ищутся по триграммам, более короткие - по словарю токенов,
+ * найденные кандидаты проверяются через contains, поэтому семантика поиска подстроки сохраняется.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ItemSearchIndex {
+    private static final int GRAM_LENGTH = 3;
+    private static final int LOAD_PAGE_SIZE = 1000;
+
+    private final ItemRepository itemRepository;
+
+    private final Map<Long, Document> documents = new HashMap<>();
+    private final Map<String, Set<Long>> tokenPostings = new HashMap<>();
+    private final Map<String, Set<Long>> trigramPostings = new HashMap<>();
+    private final Set<Long> staleIds = ConcurrentHashMap.newKeySet();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            documents.clear();
+            tokenPostings.clear();
+            trigramPostings.clear();
+            staleIds.clear();
+
+            Slice<Item> page = itemRepository.findAll(PageRequest.of(0, LOAD_PAGE_SIZE, Sort.by("id")));
+            page.forEach(this::put);
+            while (page.hasNext()) {
+                page = itemRepository.findAll(page.nextPageable());
+                page.forEach(this::put);
+            }
+            log.info("Поисковый индекс вещей построен, проиндексировано вещей: {}", documents.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Добавление или обновление вещи в индексе. При откате текущей транзакции вещь будет перечитана из базы
+     */
+    public void index(Item item) {
+        lock.writeLock().lock();
+        try {
+            remove(item.getId());
+            put(item);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        reloadOnRollback(item.getId());
+    }
+
+    /**
+     * Идентификаторы доступных вещей, в названии или описании которых встречается text (без учёта регистра)
+     */
+    public List<Long> search(String text) {
+        reloadStale();
+        String query = text.toLowerCase();
+
+        lock.readLock().lock();
+        try {
+            Collection<Long> candidates;
+            if (query.length() >= GRAM_LENGTH) {
+                candidates = intersect(trigrams(query));
+            } else if (isWord(query)) {
+                candidates = tokensContaining(query);
+            } else {
+                candidates = documents.keySet();
+            }
+
+            return candidates.stream()
+                    .filter(id -> documents.get(id).matches(query))
+                    .sorted()
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void put(Item item) {
+        Document document = new Document(item.getName().toLowerCase(), item.getDescription().toLowerCase(),
+                Boolean.TRUE.equals(item.getAvailable()));
+        documents.put(item.getId(), document);
+        forEachPosting(document, (postings, key) -> postings.computeIfAbsent(key, k -> new HashSet<>()).add(item.getId()));
+    }
+
+    private void remove(Long itemId) {
+        Document document = documents.remove(itemId);
+        if (document != null) {
+            forEachPosting(document, (postings, key) -> {
+                Set<Long> ids = postings.get(key);
+                if (ids != null && ids.remove(itemId) && ids.isEmpty()) {
+                    postings.remove(key);
+                }
+            });
+        }
+    }
+
+    private void forEachPosting(Document document, BiConsumer<Map<String, Set<Long>>, String> action) {
+        for (String field : List.of(document.name(), document.description())) {
+            tokens(field).forEach(token -> action.accept(tokenPostings, token));
+            trigrams(field).forEach(gram -> action.accept(trigramPostings, gram));
+        }
+    }
+
+    private Collection<Long> intersect(Set<String> grams) {
+        List<Set<Long>> lists = new ArrayList<>(grams.size());
+        for (String gram : grams) {
+            Set<Long> ids = trigramPostings.get(gram);
+            if (ids == null) {
+                return Collections.emptyList();
+            }
+            lists.add(ids);
+        }
+        lists.sort(Comparator.comparingInt(Set::size));
+
+        List<Long> result = new ArrayList<>(lists.getFirst());
+        for (int i = 1; i < lists.size() && !result.isEmpty(); i++) {
+            result.retainAll(lists.get(i));
+        }
+        return result;
+    }
+
+    private Collection<Long> tokensContaining(String query) {
+        Set<Long> result = new HashSet<>();
+        tokenPostings.forEach((token, ids) -> {
+            if (token.contains(query)) {
+                result.addAll(ids);
+            }
+        });
+        return result;
+    }
+
+    private void reloadOnRollback(Long itemId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    staleIds.add(itemId);
+                }
+            }
+        });
+    }
+
+    private void reloadStale() {
+        if (staleIds.isEmpty()) {
+            return;
+        }
+        List<Long> ids = new ArrayList<>(staleIds);
+        staleIds.removeAll(ids);
+        List<Item> items = itemRepository.findAllById(ids);
+
+        lock.writeLock().lock();
+        try {
+            ids.forEach(this::remove);
+            items.forEach(this::put);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public static Set<String> tokens(String text) {
+        Set<String> tokens = new HashSet<>();
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(text.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    static Set<String> trigrams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM_LENGTH));
+        }
+        return grams;
+    }
+
+    private static boolean isWord(String text) {
+        return text.chars().allMatch(Character::isLetterOrDigit);
+    }
+
+    private record Document(String name, String description, boolean available) {
+        boolean matches(String query) {
+            return available && (name.contains(query) || description.contains(query));
+        }
+    }
+}
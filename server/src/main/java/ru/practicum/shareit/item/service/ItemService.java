@@ -1,9 +1,11 @@
 package ru.practicum.shareit.item.service;
 
 import ru.practicum.shareit.item.comment.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemByIdDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemService {
@@ -13,9 +15,13 @@ public interface ItemService {
 
     ItemByIdDto getItemById(Long itemId, Long userId);
 
-    List<ItemDto> getAllItems(Long ownerId);
+    List<ItemByIdDto> getAllItems(Long ownerId, Long after, int size);
 
-    List<ItemDto> searchItems(String text);
+    List<ItemDto> searchItems(String text, LocalDateTime start, LocalDateTime end);
 
     CommentDto addComment(Long itemId, Long userId, CommentDto commentDto);
+
+    ItemAvailabilityDto getAvailability(Long itemId, LocalDateTime from, LocalDateTime to);
+
+    List<ItemAvailabilityDto> getAvailability(List<Long> itemIds, LocalDateTime from, LocalDateTime to);
 }
@@ -3,6 +3,7 @@ package ru.practicum.shareit.item.service.impl;
 import io.micrometer.common.util.StringUtils;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.dto.BookingDto;
@@ -12,29 +13,44 @@ import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.UnavailableDataException;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.availability.ItemAvailabilityIndex;
+import ru.practicum.shareit.item.cache.ItemCache;
+import ru.practicum.shareit.item.cache.ItemDetails;
+import ru.practicum.shareit.item.cache.ItemView;
+import ru.practicum.shareit.item.cache.OwnerBookings;
 import ru.practicum.shareit.item.comment.dto.CommentDto;
 import ru.practicum.shareit.item.comment.mapper.CommentMapper;
 import ru.practicum.shareit.item.comment.model.Comment;
 import ru.practicum.shareit.item.comment.repository.CommentRepository;
+import ru.practicum.shareit.item.dto.AvailabilityIntervalDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemByIdDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.logging.ServiceLog;
 import ru.practicum.shareit.request.model.Request;
 import ru.practicum.shareit.request.repository.RequestRepository;
+import ru.practicum.shareit.request.suggestion.RequestMatchIndex;
+import ru.practicum.shareit.request.suggestion.Suggestion;
+import ru.practicum.shareit.request.suggestion.SuggestionRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
-import java.util.Collections;
-import java.util.List;
+import java.util.*;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 @AllArgsConstructor
 public class ItemServiceImpl implements ItemService {
+    private static final int MAX_SUGGESTIONS_PER_ITEM = 10;
+    private static final int SEARCH_LOAD_CHUNK_SIZE = 1000;
 
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
@@ -44,11 +60,16 @@ public class ItemServiceImpl implements ItemService {
     private final ItemMapper itemMapper;
     private final CommentMapper commentMapper;
     private final BookingMapper bookingMapper;
+    private final ItemSearchIndex itemSearchIndex;
+    private final ItemCache itemCache;
+    private final RequestMatchIndex requestMatchIndex;
+    private final SuggestionRepository suggestionRepository;
+    private final ItemAvailabilityIndex itemAvailabilityIndex;
 
     @Override
     @Transactional
     public ItemDto create(ItemDto itemDto, Long ownerId) {
-        log.debug("Обработка запроса на добавление вещи: {}, пользователем: {}", itemDto, ownerId);
+        ServiceLog.debug(log, "Обработка запроса на добавление вещи: {}, пользователем: {}", itemDto, ownerId);
         Item item;
         User owner = userRepository.findById(ownerId).orElseThrow(() -> {
             log.warn("Попытка создать вещь с несуществующим владельцем id: {}", ownerId);
@@ -59,20 +80,23 @@ public class ItemServiceImpl implements ItemService {
             Request request = requestRepository.findById(itemDto.getRequestId())
                     .orElseThrow(() -> new NotFoundException("Запрос не найден"));
             item = itemMapper.toItem(itemDto, owner, request);
+            requestMatchIndex.close(request.getId());
         } else {
             item = itemMapper.toItem(itemDto, owner);
         }
         itemRepository.save(item);
+        itemSearchIndex.index(item);
+        suggest(item);
         ItemDto createdItem = itemMapper.toItemDto(item);
 
-        log.debug("Вещь успешно создана: {}", createdItem);
+        ServiceLog.debug(log, "Вещь успешно создана: {}", createdItem);
         return createdItem;
     }
 
     @Override
     @Transactional
     public ItemDto update(Long itemId, ItemDto itemDto, Long ownerId) {
-        log.debug("Обработка запроса на обновление информации о вещи с id: {}, новые данные: {}, владельцем с id: {}", itemId, itemDto, ownerId);
+        ServiceLog.debug(log, "Обработка запроса на обновление информации о вещи с id: {}, новые данные: {}, владельцем с id: {}", itemId, itemDto, ownerId);
 
         Item item = itemRepository.findById(itemId).orElseThrow(() -> {
             log.warn("Попытка обновления несуществующей вещи с id: {}", itemId);
@@ -89,8 +113,12 @@ public class ItemServiceImpl implements ItemService {
                 item.setAvailable(itemDto.getAvailable());
             }
             itemRepository.save(item);
+            itemSearchIndex.index(item);
+            itemCache.evictItem(itemId);
+            suggestionRepository.deleteByItemId(itemId);
+            suggest(item);
             ItemDto updatedItem = itemMapper.toItemDto(item);
-            log.debug("Вещь с id {} успешно обновлена: {}", itemId, updatedItem);
+            ServiceLog.debug(log, "Вещь с id {} успешно обновлена: {}", itemId, updatedItem);
             return updatedItem;
         }
 
@@ -98,71 +126,127 @@ public class ItemServiceImpl implements ItemService {
         throw new UnavailableDataException("Вещь может быть обновлена только владельцем");
     }
 
+    /**
+     * Предложение доступной вещи авторам подходящих открытых запросов
+     */
+    private void suggest(Item item) {
+        if (!item.getAvailable()) {
+            return;
+        }
+        Map<Long, Integer> matches = requestMatchIndex.match(item, MAX_SUGGESTIONS_PER_ITEM);
+        if (matches.isEmpty()) {
+            return;
+        }
+
+        List<Request> requests = requestRepository.findAllById(matches.keySet());
+        if (requests.size() < matches.size()) {
+            Set<Long> found = requests.stream().map(Request::getId).collect(Collectors.toSet());
+            matches.keySet().stream().filter(id -> !found.contains(id)).forEach(requestMatchIndex::markStale);
+        }
+        suggestionRepository.saveAll(requests.stream()
+                .map(request -> new Suggestion(null, request, item, matches.get(request.getId())))
+                .toList());
+        ServiceLog.debug(log, "Вещь с id: {} предложена по запросам: {}", item.getId(), matches.keySet());
+    }
+
     @Override
     @Transactional(readOnly = true)
     public ItemByIdDto getItemById(Long itemId, Long userId) {
-        log.debug("Обработка запроса на получение информации о вещи по id: {} пользователем: {}", itemId, userId);
+        ServiceLog.debug(log, "Обработка запроса на получение информации о вещи по id: {} пользователем: {}", itemId, userId);
 
-        Item item = itemRepository.findById(itemId).orElseThrow(() -> {
-            log.warn("Попытка получения информации о несуществующей вещи с id: {}", itemId);
-            return new NotFoundException("Вещь с id: " + itemId + " не найдена");
-        });
+        ItemView view = itemCache.get(itemId, userId, LocalDateTime.now(), () -> loadItemView(itemId));
+        OwnerBookings ownerBookings = view.ownerBookings();
 
-        BookingDto lastBooking = bookingRepository.findLastBookingsByItemId(itemId).stream()
-                .findFirst()
-                .map(bookingMapper::toBookingDto)
-                .orElse(null);
+        ItemByIdDto foundItem = itemMapper.toItemDto(view.details().item(), ownerBookings.lastBooking(), ownerBookings.nextBooking());
 
-        BookingDto nextBooking = bookingRepository.findNextBookingsByItemId(itemId).stream()
-                .findFirst()
-                .map(bookingMapper::toBookingDto)
-                .orElse(null);
+        ServiceLog.debug(log, "Полная информации о вещи с id: {} пользователем: {} получена: {}", itemId, userId, foundItem);
+        return foundItem;
+    }
 
+    /**
+     * Вещь читается одним запросом вместе с последним и ближайшим бронированием по ссылкам из её строки,
+     * комментарии - вторым. Бронирования владельца берутся из той же загрузки, без отдельного запроса
+     */
+    private ItemView loadItemView(Long itemId) {
+        Item item = itemRepository.findWithBookingsById(itemId).orElseThrow(() -> {
+            log.warn("Попытка получения информации о несуществующей вещи с id: {}", itemId);
+            return new NotFoundException("Вещь с id: " + itemId + " не найдена");
+        });
         List<CommentDto> comments = commentRepository.findByItemId(itemId).stream()
                 .map(commentMapper::toCommentDto)
                 .toList();
+        return new ItemView(new ItemDetails(item.getOwner().getId(), itemMapper.toItemDto(item, comments, null, null)),
+                new OwnerBookings(toBookingDto(item.getLastBooking()), toBookingDto(item.getNextBooking())));
+    }
 
-        if (!item.getOwner().getId().equals(userId)) lastBooking = nextBooking = null;
-        ItemByIdDto foundItem = itemMapper.toItemDto(item, comments, lastBooking, nextBooking);
-
-        log.debug("Полная информации о вещи с id: {} пользователем: {} получена: {}", itemId, userId, foundItem);
-        return foundItem;
+    private BookingDto toBookingDto(Booking booking) {
+        return booking != null ? bookingMapper.toBookingDto(booking) : null;
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<ItemDto> getAllItems(Long ownerId) {
-        log.debug("Обработка запроса на получение информации о всех вещах пользователя с id: {}", ownerId);
+    public List<ItemByIdDto> getAllItems(Long ownerId, Long after, int size) {
+        ServiceLog.debug(log, "Обработка запроса на получение информации о вещах пользователя с id: {}, после вещи: {}, размер страницы: {}", (long) ownerId, (long) after, size);
 
-        List<ItemDto> foundItems = itemRepository.findAll().stream()
-                .filter(item -> item.getOwner().getId().equals(ownerId)).map(itemMapper::toItemDto).toList();
+        List<Item> items = itemRepository.findByOwnerIdAndIdGreaterThanOrderByIdAsc(ownerId, after, Limit.of(size));
+        if (items.isEmpty()) {
+            ServiceLog.debug(log, "Для владельца с id: {} вещей не найдено", ownerId);
+            return Collections.emptyList();
+        }
+
+        List<Long> itemIds = items.stream().map(Item::getId).toList();
+        Map<Long, List<CommentDto>> comments = commentRepository.findByItemIdIn(itemIds).stream()
+                .collect(Collectors.groupingBy(comment -> comment.getItem().getId(),
+                        Collectors.mapping(commentMapper::toCommentDto, Collectors.toList())));
+
+        List<ItemByIdDto> foundItems = items.stream()
+                .map(item -> itemMapper.toItemDto(item, comments.getOrDefault(item.getId(), Collections.emptyList()),
+                        toBookingDto(item.getLastBooking()), toBookingDto(item.getNextBooking())))
+                .toList();
 
-        log.debug("Для владельца с id: {} найдено вещей: {}. Список: {}", ownerId, foundItems.size(), foundItems);
+        ServiceLog.debugList(log, "Для владельца с id: {} найдено вещей: {}. Список: {}", ownerId, foundItems);
         return foundItems;
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<ItemDto> searchItems(String text) {
-        log.debug("Обработка запроса на поиск вещи: '{}'", text);
+    public List<ItemDto> searchItems(String text, LocalDateTime start, LocalDateTime end) {
+        ServiceLog.debug(log, "Обработка запроса на поиск вещи: '{}', свободной с {} по {}", text, start, end);
 
+        if ((start == null) != (end == null)) {
+            throw new ValidationException("Для поиска свободных вещей нужно указать и начало, и окончание периода");
+        }
+        if (start != null && !start.isBefore(end)) {
+            throw new ValidationException("Начало периода поиска должно быть раньше окончания");
+        }
         if (StringUtils.isBlank(text)) {
             log.debug("Текст поиска пустой, возвращяем пустой список");
             return Collections.emptyList();
         }
         String lowerCaseText = text.toLowerCase();
-        List<ItemDto> foundItems = itemRepository.findAll().stream()
+        List<Long> candidateIds = itemSearchIndex.search(text);
+        // Кандидаты грузятся частями, чтобы список IN не упирался в предел параметров запроса
+        List<Item> candidates = new ArrayList<>(candidateIds.size());
+        for (int from = 0; from < candidateIds.size(); from += SEARCH_LOAD_CHUNK_SIZE) {
+            List<Long> chunk = candidateIds.subList(from, Math.min(candidateIds.size(), from + SEARCH_LOAD_CHUNK_SIZE));
+            candidates.addAll(start != null
+                    ? itemRepository.findAllByIdWithoutBookingsBetween(chunk, Status.APPROVED, start, end)
+                    : itemRepository.findAllById(chunk));
+        }
+        List<ItemDto> foundItems = candidates.stream()
                 .filter(item -> item.getName().toLowerCase().contains(lowerCaseText) || item.getDescription().toLowerCase().contains(lowerCaseText))
-                .filter(item -> item.getAvailable().equals(true)).map(itemMapper::toItemDto).toList();
+                .filter(item -> item.getAvailable().equals(true))
+                .sorted(Comparator.comparing(Item::getId))
+                .map(itemMapper::toItemDto).toList();
 
-        log.debug("По запросу: '{}' найдено вещей: {}. Список: {}", text, foundItems.size(), foundItems);
+        ServiceLog.debugList(log, "По запросу: '{}' найдено вещей: {}. Список: {}", text, foundItems);
         return foundItems;
     }
 
     @Override
     @Transactional
     public CommentDto addComment(Long itemId, Long userId, CommentDto commentDto) {
-        log.debug("Обработка запроса на добавление комментария на вещь: {}", itemId);
+        ServiceLog.debug(log, "Обработка запроса на добавление комментария на вещь: {}", itemId);
 
         Item item = itemRepository.findById(itemId).orElseThrow(() ->
                 new NotFoundException("Вещь с id: " + itemId + " не найдена"));
@@ -189,9 +273,69 @@ public class ItemServiceImpl implements ItemService {
         comment.setAuthor(author);
 
         commentRepository.save(comment);
+        itemCache.evictDetails(itemId);
         CommentDto createdComment = commentMapper.toCommentDto(comment);
 
-        log.debug("Комментарий успешно создан: {}", createdComment);
+        ServiceLog.debug(log, "Комментарий успешно создан: {}", createdComment);
         return createdComment;
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ItemAvailabilityDto getAvailability(Long itemId, LocalDateTime from, LocalDateTime to) {
+        ServiceLog.debug(log, "Обработка запроса на получение занятости вещи: {} с {} по {}", itemId, from, to);
+
+        if (!itemRepository.existsById(itemId)) {
+            throw new NotFoundException("Вещь с id: " + itemId + " не найдена");
+        }
+        return toAvailability(itemId, from, to);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ItemAvailabilityDto> getAvailability(List<Long> itemIds, LocalDateTime from, LocalDateTime to) {
+        ServiceLog.debug(log, "Обработка запроса на получение занятости вещей: {} с {} по {}", itemIds, from, to);
+
+        Set<Long> existingIds = itemRepository.findAllById(itemIds).stream()
+                .map(Item::getId)
+                .collect(Collectors.toSet());
+        List<ItemAvailabilityDto> availability = new LinkedHashSet<>(itemIds).stream()
+                .filter(existingIds::contains)
+                .map(itemId -> toAvailability(itemId, from, to))
+                .toList();
+
+        ServiceLog.debugList(log, "Получена занятость вещей: {}. Список: {}", availability);
+        return availability;
+    }
+
+    /**
+     * Календарь вещи на окно [from, to): свободные и занятые промежутки подряд, без пропусков.
+     * Окно начинается не раньше текущего момента, по умолчанию длится сутки
+     */
+    private ItemAvailabilityDto toAvailability(Long itemId, LocalDateTime from, LocalDateTime to) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime windowStart = from == null || from.isBefore(now) ? now : from;
+        LocalDateTime windowEnd = to != null ? to : windowStart.plusDays(1);
+
+        List<AvailabilityIntervalDto> intervals = new ArrayList<>();
+        if (windowStart.isBefore(windowEnd)) {
+            LocalDateTime cursor = windowStart;
+            for (ItemAvailabilityIndex.Interval busy : itemAvailabilityIndex.busy(itemId, windowStart, windowEnd)) {
+                if (cursor.isBefore(busy.start())) {
+                    intervals.add(new AvailabilityIntervalDto(cursor, busy.start(), true));
+                }
+                intervals.add(new AvailabilityIntervalDto(busy.start(), busy.end(), false));
+                cursor = busy.end();
+            }
+            if (cursor.isBefore(windowEnd)) {
+                intervals.add(new AvailabilityIntervalDto(cursor, windowEnd, true));
+            }
+        }
+        return ItemAvailabilityDto.builder()
+                .itemId(itemId)
+                .from(windowStart)
+                .to(windowEnd)
+                .intervals(intervals)
+                .build();
+    }
 }
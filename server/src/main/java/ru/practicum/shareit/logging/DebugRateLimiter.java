@@ -0,0 +1,46 @@
+package ru.practicum.shareit.logging;
+
+import org.slf4j.Logger;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Ограничение числа отладочных сообщений в окне фиксированной длины. Счётчики сбрасываются без блокировок,
+ * поэтому на границе окна лимит может быть превышен на число одновременно пишущих потоков
+ */
+final class DebugRateLimiter {
+    private final int maxMessages;
+    private final long windowNanos;
+    private final LongSupplier nanoClock;
+    private final AtomicLong window = new AtomicLong(Long.MIN_VALUE);
+    private final AtomicInteger messages = new AtomicInteger();
+    private final AtomicLong dropped = new AtomicLong();
+
+    DebugRateLimiter(int maxMessages, long windowNanos, LongSupplier nanoClock) {
+        this.maxMessages = maxMessages;
+        this.windowNanos = windowNanos;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Можно ли писать сообщение. Первый вызов в новом окне пишет в log, сколько сообщений пропущено в прошлом
+     */
+    boolean tryAcquire(Logger log) {
+        long current = Math.floorDiv(nanoClock.getAsLong(), windowNanos);
+        long previous = window.get();
+        if (current != previous && window.compareAndSet(previous, current)) {
+            messages.set(0);
+            long skipped = dropped.getAndSet(0);
+            if (skipped > 0) {
+                log.debug("Пропущено отладочных сообщений из-за ограничения частоты: {}", skipped);
+            }
+        }
+        if (messages.incrementAndGet() <= maxMessages) {
+            return true;
+        }
+        dropped.incrementAndGet();
+        return false;
+    }
+}
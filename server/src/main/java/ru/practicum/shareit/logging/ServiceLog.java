@@ -0,0 +1,125 @@
+package ru.practicum.shareit.logging;
+
+import org.slf4j.Logger;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Отладочный лог сервисов. Аргументы проверяются и форматируются только при включённом DEBUG,
+ * поэтому при выключенном уровне вызов не создаёт ни массива аргументов, ни строк. Числа-примитивы передаются
+ * в перегрузки с long и упаковываются тоже только при включённом DEBUG: упаковку в месте вызова JIT не убирает.
+ * Каждый аргумент ограничен MAX_LENGTH символами, из коллекций выводится не больше MAX_ELEMENTS элементов.
+ * При включённом DEBUG пишется не больше shareit.logging.debug-messages-per-second сообщений в секунду
+ * (системное свойство, по умолчанию 1000), о пропущенных сообщениях пишется итог в начале следующей секунды
+ */
+public final class ServiceLog {
+    static final int MAX_ELEMENTS = 10;
+    static final int MAX_LENGTH = 1000;
+    private static final DebugRateLimiter RATE_LIMITER = new DebugRateLimiter(
+            Integer.getInteger("shareit.logging.debug-messages-per-second", 1000), TimeUnit.SECONDS.toNanos(1), System::nanoTime);
+
+    private ServiceLog() {
+    }
+
+    public static void debug(Logger log, String format, Object arg) {
+        if (log.isDebugEnabled() && RATE_LIMITER.tryAcquire(log)) {
+            log.debug(format, abbreviate(arg));
+        }
+    }
+
+    public static void debug(Logger log, String format, long arg) {
+        if (log.isDebugEnabled() && RATE_LIMITER.tryAcquire(log)) {
+            log.debug(format, arg);
+        }
+    }
+
+    public static void debug(Logger log, String format, Object first, Object second) {
+        if (log.isDebugEnabled() && RATE_LIMITER.tryAcquire(log)) {
+            log.debug(format, abbreviate(first), abbreviate(second));
+        }
+    }
+
+    public static void debug(Logger log, String format, Object first, Object second, Object third) {
+        if (log.isDebugEnabled() && RATE_LIMITER.tryAcquire(log)) {
+            log.debug(format, abbreviate(first), abbreviate(second), abbreviate(third));
+        }
+    }
+
+    public static void debug(Logger log, String format, long first, long second, long third) {
+        if (log.isDebugEnabled() && RATE_LIMITER.tryAcquire(log)) {
+            log.debug(format, first, second, third);
+        }
+    }
+
+    public static void debug(Logger log, String format, Object first, Object second, Object third, Object fourth) {
+        if (log.isDebugEnabled() && RATE_LIMITER.tryAcquire(log)) {
+            log.debug(format, abbreviate(first), abbreviate(second), abbreviate(third), abbreviate(fourth));
+        }
+    }
+
+    /**
+     * Сообщение о найденном списке: format получает размер списка и сокращённый список
+     */
+    public static void debugList(Logger log, String format, Collection<?> values) {
+        if (log.isDebugEnabled() && RATE_LIMITER.tryAcquire(log)) {
+            log.debug(format, values.size(), abbreviate(values));
+        }
+    }
+
+    /**
+     * Сообщение о найденном списке: format получает key, размер списка и сокращённый список
+     */
+    public static void debugList(Logger log, String format, Object key, Collection<?> values) {
+        if (log.isDebugEnabled() && RATE_LIMITER.tryAcquire(log)) {
+            log.debug(format, abbreviate(key), values.size(), abbreviate(values));
+        }
+    }
+
+    /**
+     * Сообщение о найденном списке: format получает числовой key, размер списка и сокращённый список
+     */
+    public static void debugList(Logger log, String format, long key, Collection<?> values) {
+        if (log.isDebugEnabled() && RATE_LIMITER.tryAcquire(log)) {
+            log.debug(format, key, values.size(), abbreviate(values));
+        }
+    }
+
+    /**
+     * Строка аргумента не длиннее MAX_LENGTH. Элементы коллекции дописываются, пока помещаются:
+     * после исчерпания лимита следующие элементы не вызывают toString
+     */
+    static String abbreviate(Object value) {
+        if (!(value instanceof Collection<?> values)) {
+            String text = String.valueOf(value);
+            return text.length() > MAX_LENGTH ? text.substring(0, MAX_LENGTH) + "..." : text;
+        }
+        StringBuilder builder = new StringBuilder();
+        boolean fits = append(builder, "[");
+        Iterator<?> iterator = values.iterator();
+        for (int i = 0; fits && i < MAX_ELEMENTS && iterator.hasNext(); i++) {
+            fits = (i == 0 || append(builder, ", ")) && append(builder, String.valueOf(iterator.next()));
+        }
+        if (fits && values.size() > MAX_ELEMENTS) {
+            fits = append(builder, ", ... ещё " + (values.size() - MAX_ELEMENTS));
+        }
+        if (fits && append(builder, "]")) {
+            return builder.toString();
+        }
+        return builder.append("...").toString();
+    }
+
+    /**
+     * Дописывает text целиком, если он помещается в MAX_LENGTH, иначе только помещающуюся часть
+     */
+    private static boolean append(StringBuilder builder, String text) {
+        int remaining = MAX_LENGTH - builder.length();
+        if (text.length() <= remaining) {
+            builder.append(text);
+            return true;
+        }
+        builder.append(text, 0, remaining);
+        return false;
+    }
+}
@@ -0,0 +1,123 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.lang.Nullable;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Метрики методов контроллеров: время обработки (p50/p95/p99), число SQL-запросов и прочитанных строк.
+ * Время потоковых ответов (SSE, выгрузки) определяется клиентом и подпиской, поэтому для них не замеряется,
+ * а SQL считается вместе с асинхронной частью. Если метод выполнил больше SQL-запросов, чем nPlusOneThreshold, это похоже на N+1:
+ * увеличивается счётчик shareit.endpoint.sql.n-plus-one и пишется предупреждение в лог.
+ * При выключенном подсчёте SQL (sqlCounting = false) публикуется только время обработки
+ */
+@Slf4j
+public class EndpointMetricsInterceptor implements AsyncHandlerInterceptor {
+    private static final String START_ATTRIBUTE = EndpointMetricsInterceptor.class.getName() + ".start";
+    private static final String STATISTICS_ATTRIBUTE = EndpointMetricsInterceptor.class.getName() + ".statistics";
+    private static final double[] PERCENTILES = {0.5, 0.95, 0.99};
+
+    private final MeterRegistry registry;
+    private final int nPlusOneThreshold;
+    private final boolean sqlCounting;
+    private final Map<Method, EndpointMeters> meters = new ConcurrentHashMap<>();
+
+    public EndpointMetricsInterceptor(MeterRegistry registry, int nPlusOneThreshold, boolean sqlCounting) {
+        this.registry = registry;
+        this.nPlusOneThreshold = nPlusOneThreshold;
+        this.sqlCounting = sqlCounting;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod && sqlCounting) {
+            // При асинхронной обработке метод вызывается повторно, время и SQL считаются от первого вызова
+            SqlStatistics statistics = (SqlStatistics) request.getAttribute(STATISTICS_ATTRIBUTE);
+            if (statistics == null) {
+                request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+                request.setAttribute(STATISTICS_ATTRIBUTE, SqlStatistics.start());
+            } else {
+                SqlStatistics.resume(statistics);
+            }
+        } else if (handler instanceof HandlerMethod && request.getAttribute(START_ATTRIBUTE) == null) {
+            request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        SqlStatistics.stop();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                @Nullable Exception ex) {
+        if (!(handler instanceof HandlerMethod handlerMethod)) {
+            return;
+        }
+        SqlStatistics.stop();
+        SqlStatistics statistics = (SqlStatistics) request.getAttribute(STATISTICS_ATTRIBUTE);
+        Long start = (Long) request.getAttribute(START_ATTRIBUTE);
+
+        EndpointMeters endpoint = meters.computeIfAbsent(handlerMethod.getMethod(), method -> register(handlerMethod));
+        if (start != null && endpoint.latency() != null) {
+            endpoint.latency().record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        if (statistics == null) {
+            return;
+        }
+        endpoint.statements().record(statistics.getStatements());
+        endpoint.rows().record(statistics.getRows());
+        if (statistics.getStatements() > nPlusOneThreshold) {
+            endpoint.nPlusOne().increment();
+            log.warn("Возможна проблема N+1: {}.{} выполнил SQL-запросов: {}, прочитано строк: {}",
+                    handlerMethod.getBeanType().getSimpleName(), handlerMethod.getMethod().getName(),
+                    statistics.getStatements(), statistics.getRows());
+        }
+    }
+
+    private EndpointMeters register(HandlerMethod handlerMethod) {
+        Tags tags = Tags.of("controller", handlerMethod.getBeanType().getSimpleName(),
+                "method", handlerMethod.getMethod().getName());
+        return new EndpointMeters(
+                isStreaming(handlerMethod) ? null : Timer.builder("shareit.endpoint.latency")
+                        .tags(tags)
+                        .publishPercentiles(PERCENTILES)
+                        .register(registry),
+                DistributionSummary.builder("shareit.endpoint.sql.statements")
+                        .tags(tags)
+                        .publishPercentiles(PERCENTILES)
+                        .register(registry),
+                DistributionSummary.builder("shareit.endpoint.sql.rows")
+                        .tags(tags)
+                        .publishPercentiles(PERCENTILES)
+                        .register(registry),
+                Counter.builder("shareit.endpoint.sql.n-plus-one")
+                        .tags(tags)
+                        .register(registry));
+    }
+
+    private static boolean isStreaming(HandlerMethod handlerMethod) {
+        Class<?> type = handlerMethod.getReturnType().getParameterType();
+        return ResponseBodyEmitter.class.isAssignableFrom(type) || StreamingResponseBody.class.isAssignableFrom(type);
+    }
+
+    private record EndpointMeters(@Nullable Timer latency, DistributionSummary statements, DistributionSummary rows, Counter nPlusOne) {
+    }
+}
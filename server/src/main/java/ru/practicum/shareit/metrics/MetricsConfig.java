@@ -0,0 +1,68 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+
+/**
+ * Метрики контроллеров и SQL-запросов, публикуются в actuator (/actuator/metrics/shareit.endpoint.*)
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public WebMvcConfigurer endpointMetricsConfigurer(MeterRegistry registry,
+                                                      @Value("${shareit.metrics.n-plus-one-threshold}") int nPlusOneThreshold,
+                                                      @Value("${shareit.metrics.sql-counting.enabled}") boolean sqlCounting) {
+        EndpointMetricsInterceptor interceptor = new EndpointMetricsInterceptor(registry, nPlusOneThreshold, sqlCounting);
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry interceptors) {
+                interceptors.addInterceptor(interceptor);
+            }
+        };
+    }
+
+    /**
+     * Spring Boot применяет декоратор к исполнителю асинхронной обработки запросов, поэтому SQL выгрузки
+     * в StreamingResponseBody попадает в статистику запроса, из которого она запущена
+     */
+    @Bean
+    public TaskDecorator sqlStatisticsTaskDecorator() {
+        return SqlStatistics::propagate;
+    }
+
+    /**
+     * Оборачивает источник данных последним, поверх остальных обёрток, чтобы считались все запросы.
+     * Выключается свойством shareit.metrics.sql-counting.enabled=false
+     */
+    @Bean
+    @ConditionalOnProperty(name = "shareit.metrics.sql-counting.enabled", havingValue = "true")
+    public static BeanPostProcessor sqlCountingDataSourcePostProcessor() {
+        return new SqlCountingDataSourcePostProcessor();
+    }
+
+    private static final class SqlCountingDataSourcePostProcessor implements BeanPostProcessor, Ordered {
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof DataSource dataSource && !(bean instanceof SqlCountingDataSource)) {
+                return new SqlCountingDataSource(dataSource);
+            }
+            return bean;
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.LOWEST_PRECEDENCE;
+        }
+    }
+}
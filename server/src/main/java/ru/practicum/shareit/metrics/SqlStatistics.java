@@ -0,0 +1,83 @@
+package ru.practicum.shareit.metrics;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Счётчики SQL-запросов и прочитанных строк текущего HTTP-запроса. Заполняются SqlCountingDataSource
+ * только в потоках, к которым привязаны: в потоке обработчика между start и stop и в задачах асинхронной
+ * обработки, запущенных из него (см. propagate). Вне запроса (построение индексов, фоновые задачи) не ведутся
+ */
+public final class SqlStatistics {
+    private static final ThreadLocal<SqlStatistics> CURRENT = new ThreadLocal<>();
+
+    private final AtomicInteger statements = new AtomicInteger();
+    private final AtomicLong rows = new AtomicLong();
+
+    private SqlStatistics() {
+    }
+
+    public static SqlStatistics start() {
+        SqlStatistics statistics = new SqlStatistics();
+        CURRENT.set(statistics);
+        return statistics;
+    }
+
+    /**
+     * Привязка к потоку уже начатой статистики, например при повторном вызове обработчика после асинхронной части
+     */
+    public static void resume(SqlStatistics statistics) {
+        CURRENT.set(statistics);
+    }
+
+    public static SqlStatistics stop() {
+        SqlStatistics statistics = CURRENT.get();
+        CURRENT.remove();
+        return statistics;
+    }
+
+    /**
+     * Задача, которая выполнится в другом потоке со статистикой текущего. Без начатой статистики задача не меняется
+     */
+    public static Runnable propagate(Runnable task) {
+        SqlStatistics statistics = CURRENT.get();
+        if (statistics == null) {
+            return task;
+        }
+        return () -> {
+            SqlStatistics previous = CURRENT.get();
+            CURRENT.set(statistics);
+            try {
+                task.run();
+            } finally {
+                if (previous != null) {
+                    CURRENT.set(previous);
+                } else {
+                    CURRENT.remove();
+                }
+            }
+        };
+    }
+
+    static void statementExecuted() {
+        SqlStatistics statistics = CURRENT.get();
+        if (statistics != null) {
+            statistics.statements.incrementAndGet();
+        }
+    }
+
+    static void rowFetched() {
+        SqlStatistics statistics = CURRENT.get();
+        if (statistics != null) {
+            statistics.rows.incrementAndGet();
+        }
+    }
+
+    public int getStatements() {
+        return statements.get();
+    }
+
+    public long getRows() {
+        return rows.get();
+    }
+}
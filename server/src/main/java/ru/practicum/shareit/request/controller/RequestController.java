@@ -2,11 +2,13 @@ package ru.practicum.shareit.request.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.request.dto.CreateRequestDto;
 import ru.practicum.shareit.request.dto.RequestDto;
 import ru.practicum.shareit.request.service.RequestService;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Slf4j
@@ -35,20 +37,28 @@ public class RequestController {
     }
 
     /**
-     * Получение списка своих запросов
+     * Получение списка своих запросов вместе с ответами на них.
+     * Следующая страница запрашивается по created и id последнего полученного запроса
      */
     @GetMapping
-    public List<RequestDto> getOwnRequests(@RequestHeader("X-Sharer-User-Id") Long userId) {
+    public List<RequestDto> getOwnRequests(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime afterCreated,
+                                           @RequestParam(required = false) Long afterId,
+                                           @RequestParam(defaultValue = "20") int size,
+                                           @RequestHeader("X-Sharer-User-Id") Long userId) {
         log.debug("Запрос на получение списка своих запросов пользователем: {}", userId);
-        return requestService.getOwnRequests(userId);
+        return requestService.getOwnRequests(userId, afterCreated, afterId, size);
     }
 
     /**
-     * Получение списка запросов других пользователей
+     * Получение списка запросов других пользователей вместе с ответами на них.
+     * Следующая страница запрашивается по created и id последнего полученного запроса
      */
     @GetMapping("/all")
-    public List<RequestDto> getAllRequests(@RequestHeader("X-Sharer-User-Id") Long userId, @RequestParam(defaultValue = "0") int from, @RequestParam(defaultValue = "10") int size) {
+    public List<RequestDto> getAllRequests(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime afterCreated,
+                                           @RequestParam(required = false) Long afterId,
+                                           @RequestParam(defaultValue = "20") int size,
+                                           @RequestHeader("X-Sharer-User-Id") Long userId) {
         log.debug("Запрос на получение списка запросов других пользователей пользователем: {}", userId);
-        return requestService.getAllRequests(userId, from, size);
+        return requestService.getAllRequests(userId, afterCreated, afterId, size);
     }
 }
@@ -2,7 +2,7 @@ package ru.practicum.shareit.request.dto;
 
 import lombok.*;
 import ru.practicum.shareit.item.dto.ItemForRequestByIdDto;
-import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.dto.UserDto;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -15,7 +15,8 @@ import java.util.List;
 public class RequestDto {
     private Long id;
     private String description;
-    private User requestor;
+    private UserDto requestor;
     private LocalDateTime created;
     List<ItemForRequestByIdDto> items;
+    private List<ItemForRequestByIdDto> suggestions;
 }
@@ -1,20 +1,25 @@
 package ru.practicum.shareit.request.mapper;
 
+import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Component;
 import ru.practicum.shareit.item.dto.ItemForRequestByIdDto;
 import ru.practicum.shareit.request.dto.CreateRequestDto;
 import ru.practicum.shareit.request.dto.RequestDto;
 import ru.practicum.shareit.request.model.Request;
+import ru.practicum.shareit.user.mapper.UserMapper;
 
 import java.util.List;
 
 @Component
+@AllArgsConstructor
 public class RequestMapper {
+    private final UserMapper userMapper;
+
     public RequestDto toRequestDto(Request request) {
         return RequestDto.builder()
                 .id(request.getId())
                 .description(request.getDescription())
-                .requestor(request.getRequestor())
+                .requestor(userMapper.toUserDto(request.getRequestor()))
                 .created(request.getCreated())
                 .build();
     }
@@ -29,10 +34,15 @@ public class RequestMapper {
         return RequestDto.builder()
                 .id(request.getId())
                 .description(request.getDescription())
-                .requestor(request.getRequestor())
+                .requestor(userMapper.toUserDto(request.getRequestor()))
                 .created(request.getCreated())
                 .items(items)
                 .build();
     }
-}
 
+    public RequestDto toRequestDto(Request request, List<ItemForRequestByIdDto> items, List<ItemForRequestByIdDto> suggestions) {
+        RequestDto requestDto = toRequestDto(request, items);
+        requestDto.setSuggestions(suggestions);
+        return requestDto;
+    }
+}
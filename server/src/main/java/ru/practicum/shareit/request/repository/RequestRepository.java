@@ -1,18 +1,37 @@
 package ru.practicum.shareit.request.repository;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.request.model.Request;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface RequestRepository extends JpaRepository<Request, Long> {
-    List<Request> findByRequestorIdOrderByCreatedDesc(Long requestorId);
+    /**
+     * Курсор (created, id): страница начинается сразу после запроса afterCreated/afterId в порядке убывания.
+     * Условие created <= afterCreated повторено отдельно, чтобы индекс по created читался диапазоном
+     */
+    String KEYSET_PAGE = " AND r.created <= :afterCreated AND (r.created < :afterCreated OR r.id < :afterId) ORDER BY r.created DESC, r.id DESC";
 
-    @Query("SELECT ir FROM Request ir WHERE ir.requestor.id != :userId ORDER BY ir.created DESC")
-    List<Request> findAllByRequestorIdNot(Long userId, Pageable pageable);
-}
+    @EntityGraph(attributePaths = "requestor")
+    Optional<Request> findWithRequestorById(Long requestId);
+
+    @EntityGraph(attributePaths = "requestor")
+    @Query("SELECT r FROM Request r WHERE r.requestor.id = :userId" + KEYSET_PAGE)
+    List<Request> findOwnRequests(Long userId, LocalDateTime afterCreated, Long afterId, Limit limit);
 
+    @EntityGraph(attributePaths = "requestor")
+    @Query("SELECT r FROM Request r WHERE r.requestor.id <> :userId" + KEYSET_PAGE)
+    List<Request> findOtherRequests(Long userId, LocalDateTime afterCreated, Long afterId, Limit limit);
+
+    @Query("SELECT r FROM Request r WHERE NOT EXISTS (SELECT i FROM Item i WHERE i.request = r)")
+    Slice<Request> findOpenRequests(Pageable pageable);
+}
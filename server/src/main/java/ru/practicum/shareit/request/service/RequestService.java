@@ -3,14 +3,15 @@ package ru.practicum.shareit.request.service;
 import ru.practicum.shareit.request.dto.CreateRequestDto;
 import ru.practicum.shareit.request.dto.RequestDto;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface RequestService {
     RequestDto create(CreateRequestDto createRequestDto);
 
-    List<RequestDto> getOwnRequests(Long userId);
+    List<RequestDto> getOwnRequests(Long userId, LocalDateTime afterCreated, Long afterId, int size);
 
-    List<RequestDto> getAllRequests(Long userId, int from, int size);
+    List<RequestDto> getAllRequests(Long userId, LocalDateTime afterCreated, Long afterId, int size);
 
     RequestDto getRequestById(Long requestId, Long userId);
 }
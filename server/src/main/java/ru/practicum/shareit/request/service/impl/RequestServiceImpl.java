@@ -2,85 +2,121 @@ package ru.practicum.shareit.request.service.impl;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.dto.ItemForRequestByIdDto;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.logging.ServiceLog;
 import ru.practicum.shareit.request.dto.CreateRequestDto;
 import ru.practicum.shareit.request.dto.RequestDto;
 import ru.practicum.shareit.request.mapper.RequestMapper;
 import ru.practicum.shareit.request.model.Request;
 import ru.practicum.shareit.request.repository.RequestRepository;
 import ru.practicum.shareit.request.service.RequestService;
+import ru.practicum.shareit.request.suggestion.RequestMatchIndex;
+import ru.practicum.shareit.request.suggestion.Suggestion;
+import ru.practicum.shareit.request.suggestion.SuggestionRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class RequestServiceImpl implements RequestService {
+    private static final LocalDateTime FIRST_PAGE_CREATED = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
     private final RequestRepository requestRepository;
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
     private final RequestMapper requestMapper;
     private final ItemMapper itemMapper;
+    private final SuggestionRepository suggestionRepository;
+    private final RequestMatchIndex requestMatchIndex;
 
     @Override
     @Transactional
     public RequestDto create(CreateRequestDto createRequestDto) {
-        log.debug("Обработка запроса на создание запроса на вещь пользователем: {}", createRequestDto);
+        ServiceLog.debug(log, "Обработка запроса на создание запроса на вещь пользователем: {}", createRequestDto);
         User user = userRepository.findById(createRequestDto.getUserId())
                 .orElseThrow(() -> new NotFoundException("Пользователь не найден"));
 
         Request request = requestMapper.toRequest(createRequestDto);
         request.setRequestor(user);
-        request.setCreated(LocalDateTime.now());
+        // БД хранит время с точностью до микросекунд, иначе курсор страницы из ответа не совпадёт с сохранённым
+        request.setCreated(LocalDateTime.now().truncatedTo(ChronoUnit.MICROS));
         requestRepository.save(request);
+        requestMatchIndex.index(request);
         RequestDto createdRequest = requestMapper.toRequestDto(request);
 
-        log.debug("Запрос на бронирование успешно создан: {}", createdRequest);
+        ServiceLog.debug(log, "Запрос на бронирование успешно создан: {}", createdRequest);
         return createdRequest;
     }
 
     @Override
     @Transactional(readOnly = true)
     public RequestDto getRequestById(Long requestId, Long userId) {
-        log.debug("Обработка запроса на получение данных о запросе: {} пользователем: {}", requestId, userId);
-        Request request = requestRepository.findById(requestId)
+        ServiceLog.debug(log, "Обработка запроса на получение данных о запросе: {} пользователем: {}", requestId, userId);
+        Request request = requestRepository.findWithRequestorById(requestId)
                 .orElseThrow(() -> new NotFoundException("Запрос не найден"));
 
         List<ItemForRequestByIdDto> itemList = itemRepository.findByRequestId(requestId).stream()
                 .map(itemMapper::toItemForRequestByIdDto)
                 .toList();
+        Set<Long> itemIds = itemList.stream().map(ItemForRequestByIdDto::getId).collect(Collectors.toSet());
+        List<ItemForRequestByIdDto> suggestions = suggestionRepository.findByRequestIdOrderByScoreDescIdAsc(requestId).stream()
+                .map(Suggestion::getItem)
+                .filter(item -> item.getAvailable() && !itemIds.contains(item.getId()))
+                .map(itemMapper::toItemForRequestByIdDto)
+                .toList();
 
-        RequestDto foundRequest = requestMapper.toRequestDto(request, itemList);
-        log.debug("Получены данные о запросе: {}", foundRequest);
+        RequestDto foundRequest = requestMapper.toRequestDto(request, itemList, suggestions);
+        ServiceLog.debug(log, "Получены данные о запросе: {}", foundRequest);
         return foundRequest;
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<RequestDto> getOwnRequests(Long userId) {
-        log.debug("Обработка запроса на получение списка своих запросов пользователем: {}", userId);
-        return requestRepository.findByRequestorIdOrderByCreatedDesc(userId).stream()
-                .map(requestMapper::toRequestDto)
-                .toList();
+    public List<RequestDto> getOwnRequests(Long userId, LocalDateTime afterCreated, Long afterId, int size) {
+        ServiceLog.debug(log, "Обработка запроса на получение списка своих запросов пользователем: {}, после: {}/{}", userId, afterCreated, afterId);
+        List<Request> requests = requestRepository.findOwnRequests(userId,
+                afterCreated != null ? afterCreated : FIRST_PAGE_CREATED, afterId != null ? afterId : Long.MAX_VALUE, Limit.of(size));
+        return withItems(requests);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<RequestDto> getAllRequests(Long userId, int from, int size) {
-        log.debug("Обработка запроса на получение списка запросов других пользователей пользователем: {}", userId);
-        return requestRepository.findAllByRequestorIdNot(userId, PageRequest.of(from / size, size, Sort.by("created").descending()))
-                .stream()
-                .map(requestMapper::toRequestDto)
+    public List<RequestDto> getAllRequests(Long userId, LocalDateTime afterCreated, Long afterId, int size) {
+        ServiceLog.debug(log, "Обработка запроса на получение списка запросов других пользователей пользователем: {}, после: {}/{}", userId, afterCreated, afterId);
+        List<Request> requests = requestRepository.findOtherRequests(userId,
+                afterCreated != null ? afterCreated : FIRST_PAGE_CREATED, afterId != null ? afterId : Long.MAX_VALUE, Limit.of(size));
+        return withItems(requests);
+    }
+
+    /**
+     * Вещи для всей страницы запросов загружаются одним запросом по списку id
+     */
+    private List<RequestDto> withItems(List<Request> requests) {
+        if (requests.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Long> requestIds = requests.stream().map(Request::getId).toList();
+        Map<Long, List<ItemForRequestByIdDto>> items = itemRepository.findByRequestIdIn(requestIds).stream()
+                .collect(Collectors.groupingBy(item -> item.getRequest().getId(),
+                        Collectors.mapping(itemMapper::toItemForRequestByIdDto, Collectors.toList())));
+
+        return requests.stream()
+                .map(request -> requestMapper.toRequestDto(request, items.getOrDefault(request.getId(), Collections.emptyList())))
                 .toList();
     }
 }
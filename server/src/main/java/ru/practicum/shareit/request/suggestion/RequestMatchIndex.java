@@ -0,0 +1,201 @@
+package ru.practicum.shareit.request.suggestion;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.request.model.Request;
+import ru.practicum.shareit.request.repository.RequestRepository;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * Инвертированный индекс слов из описаний открытых запросов, то есть запросов, на которые ещё не ответили вещью.
+ * Для новой или изменённой вещи перебираются только списки запросов по её словам, а не все запросы,
+ * оценка совпадения - число общих слов
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RequestMatchIndex {
+    private static final int MIN_TOKEN_LENGTH = 3;
+    private static final int LOAD_PAGE_SIZE = 1000;
+
+    private final RequestRepository requestRepository;
+    private final ItemRepository itemRepository;
+
+    private final Map<Long, Document> documents = new HashMap<>();
+    private final Map<String, Set<Long>> postings = new HashMap<>();
+    private final Set<Long> staleIds = ConcurrentHashMap.newKeySet();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            documents.clear();
+            postings.clear();
+            staleIds.clear();
+
+            Slice<Request> page = requestRepository.findOpenRequests(PageRequest.of(0, LOAD_PAGE_SIZE, Sort.by("id")));
+            page.forEach(this::put);
+            while (page.hasNext()) {
+                page = requestRepository.findOpenRequests(page.nextPageable());
+                page.forEach(this::put);
+            }
+            log.info("Индекс открытых запросов построен, проиндексировано запросов: {}", documents.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Добавление нового запроса. Внутри транзакции запрос попадает в индекс только после её фиксации,
+     * иначе подбор из другой транзакции найдёт в индексе запрос, строки которого ещё не видно
+     */
+    public void index(Request request) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            replace(request);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                replace(request);
+            }
+        });
+    }
+
+    /**
+     * Запрос получил ответ и больше не участвует в подборе
+     */
+    public void close(Long requestId) {
+        lock.writeLock().lock();
+        try {
+            remove(requestId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        reloadOnRollback(requestId);
+    }
+
+    /**
+     * Запрос из индекса не нашёлся в базе. Отсутствие строки не повод закрывать запрос: транзакция,
+     * которая её не видит, могла начаться раньше фиксации. Запрос перечитывается перед следующим подбором
+     */
+    public void markStale(Long requestId) {
+        staleIds.add(requestId);
+    }
+
+    /**
+     * Открытые запросы других пользователей, с описанием которых у вещи есть общие слова,
+     * по убыванию оценки: не больше limit пар id запроса - оценка
+     */
+    public LinkedHashMap<Long, Integer> match(Item item, int limit) {
+        reloadStale();
+        Set<String> tokens = tokens(item.getName() + " " + item.getDescription());
+        Long ownerId = item.getOwner().getId();
+
+        Map<Long, Integer> scores = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            for (String token : tokens) {
+                for (Long requestId : postings.getOrDefault(token, Collections.emptySet())) {
+                    if (!documents.get(requestId).requestorId().equals(ownerId)) {
+                        scores.merge(requestId, 1, Integer::sum);
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return scores.entrySet().stream()
+                .sorted(Map.Entry.<Long, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .limit(limit)
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (first, second) -> first, LinkedHashMap::new));
+    }
+
+    private void replace(Request request) {
+        lock.writeLock().lock();
+        try {
+            remove(request.getId());
+            put(request);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void put(Request request) {
+        Document document = new Document(request.getRequestor().getId(), tokens(request.getDescription()));
+        documents.put(request.getId(), document);
+        document.tokens().forEach(token -> postings.computeIfAbsent(token, k -> new HashSet<>()).add(request.getId()));
+    }
+
+    private void remove(Long requestId) {
+        Document document = documents.remove(requestId);
+        if (document != null) {
+            document.tokens().forEach(token -> {
+                Set<Long> ids = postings.get(token);
+                if (ids != null && ids.remove(requestId) && ids.isEmpty()) {
+                    postings.remove(token);
+                }
+            });
+        }
+    }
+
+    private void reloadOnRollback(Long requestId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    staleIds.add(requestId);
+                }
+            }
+        });
+    }
+
+    private void reloadStale() {
+        if (staleIds.isEmpty()) {
+            return;
+        }
+        List<Long> ids = new ArrayList<>(staleIds);
+        staleIds.removeAll(ids);
+        List<Request> requests = requestRepository.findAllById(ids).stream()
+                .filter(request -> !itemRepository.existsByRequestId(request.getId()))
+                .toList();
+
+        lock.writeLock().lock();
+        try {
+            ids.forEach(this::remove);
+            requests.forEach(this::put);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    static Set<String> tokens(String text) {
+        return ItemSearchIndex.tokens(text.toLowerCase()).stream()
+                .filter(token -> token.length() >= MIN_TOKEN_LENGTH)
+                .collect(Collectors.toSet());
+    }
+
+    private record Document(Long requestorId, Set<String> tokens) {
+    }
+}
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.request.suggestion;
+
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface SuggestionRepository extends JpaRepository<Suggestion, Long> {
+    @EntityGraph(attributePaths = "item")
+    List<Suggestion> findByRequestIdOrderByScoreDescIdAsc(Long requestId);
+
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM Suggestion s WHERE s.item.id = :itemId")
+    void deleteByItemId(Long itemId);
+}
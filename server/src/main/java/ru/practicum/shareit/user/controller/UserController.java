@@ -1,11 +1,16 @@
 package ru.practicum.shareit.user.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 @Slf4j
@@ -13,7 +18,10 @@ import java.util.List;
 @RequiredArgsConstructor
 @RequestMapping("/users")
 public class UserController {
+    public static final String NDJSON = "application/x-ndjson";
+
     private final UserService userService;
+    private final ObjectMapper objectMapper;
 
     /**
      * Создание пользователя
@@ -59,4 +67,27 @@ public class UserController {
         log.debug("Запрос на получение информации о всех пользователях");
         return userService.getAll();
     }
+
+    /**
+     * Выгрузка всех пользователей в формате NDJSON: строки пишутся в ответ по мере чтения из базы
+     */
+    @GetMapping(value = "/export", produces = NDJSON)
+    public StreamingResponseBody exportUsers() {
+        log.debug("Запрос на выгрузку всех пользователей");
+        ObjectWriter writer = objectMapper.writerFor(UserDto.class);
+        return out -> {
+            try {
+                userService.exportAll(user -> {
+                    try {
+                        out.write(writer.writeValueAsBytes(user));
+                        out.write('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+    }
 }
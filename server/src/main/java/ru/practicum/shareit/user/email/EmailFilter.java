@@ -0,0 +1,156 @@
+package ru.practicum.shareit.user.email;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Фильтр Блума по электронной почте пользователей.
+ * Отрицательный ответ точен, и проверку в базе можно пропустить, положительный означает лишь, что почта, возможно, занята.
+ * Удалённые и изменённые адреса остаются в фильтре до перестроения и дают только лишние обращения к базе
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EmailFilter {
+    private static final int MIN_CAPACITY = 1024;
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+    private static final int MAX_CAPACITY = Integer.MAX_VALUE / 16;
+    private static final int LOAD_PAGE_SIZE = 1000;
+
+    private final UserRepository userRepository;
+
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    private volatile Bits bits = new Bits(MIN_CAPACITY);
+    private volatile Bits next;
+
+    /**
+     * Построение фильтра по всем адресам в базе. Адреса, добавленные во время построения,
+     * попадают и в старый, и в новый фильтр
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        Bits rebuilt = new Bits((int) Math.min(MAX_CAPACITY, Math.max(MIN_CAPACITY, userRepository.count() * 2)));
+        next = rebuilt;
+        try {
+            Slice<String> page = userRepository.findEmails(PageRequest.of(0, LOAD_PAGE_SIZE, Sort.by("id")));
+            page.forEach(rebuilt::add);
+            while (page.hasNext()) {
+                page = userRepository.findEmails(page.nextPageable());
+                page.forEach(rebuilt::add);
+            }
+            bits = rebuilt;
+        } finally {
+            next = null;
+        }
+        log.info("Фильтр электронной почты построен, добавлено адресов: {}", rebuilt.size());
+    }
+
+    public boolean mightContain(String email) {
+        return bits.mightContain(email);
+    }
+
+    /**
+     * Добавление почты сохранённого пользователя. Переполненный фильтр перестраивается с удвоенной ёмкостью
+     * в отдельном потоке, до замены проверки идут по старому фильтру с повышенной долей ложных срабатываний
+     */
+    public void add(String email) {
+        Bits current = bits;
+        current.add(email);
+        Bits rebuilt = next;
+        if (rebuilt != null) {
+            rebuilt.add(email);
+        }
+        if (current.size() > current.capacity() && rebuilding.compareAndSet(false, true)) {
+            Thread.ofVirtual().name("email-filter-rebuild").start(() -> {
+                try {
+                    rebuild();
+                } catch (RuntimeException e) {
+                    log.warn("Не удалось перестроить фильтр электронной почты", e);
+                } finally {
+                    rebuilding.set(false);
+                }
+            });
+        }
+    }
+
+    private static final class Bits {
+        private final int capacity;
+        private final int bitCount;
+        private final int hashCount;
+        private final AtomicLongArray words;
+        private final AtomicInteger size = new AtomicInteger();
+
+        Bits(int capacity) {
+            this.capacity = capacity;
+            double ln2 = Math.log(2);
+            this.bitCount = (int) Math.ceil(-capacity * Math.log(FALSE_POSITIVE_RATE) / (ln2 * ln2));
+            this.hashCount = Math.max(1, (int) Math.round((double) bitCount / capacity * ln2));
+            this.words = new AtomicLongArray((bitCount + Long.SIZE - 1) / Long.SIZE);
+        }
+
+        void add(String email) {
+            long hash = hash(email);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 0; i < hashCount; i++) {
+                int bit = Math.floorMod(h1 + i * h2, bitCount);
+                long mask = 1L << bit;
+                int word = bit / Long.SIZE;
+                long value = words.get(word);
+                while ((value & mask) == 0 && !words.compareAndSet(word, value, value | mask)) {
+                    value = words.get(word);
+                }
+            }
+            size.incrementAndGet();
+        }
+
+        boolean mightContain(String email) {
+            long hash = hash(email);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 0; i < hashCount; i++) {
+                int bit = Math.floorMod(h1 + i * h2, bitCount);
+                if ((words.get(bit / Long.SIZE) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        int size() {
+            return size.get();
+        }
+
+        int capacity() {
+            return capacity;
+        }
+
+        /**
+         * 64-битный FNV-1a с финальным перемешиванием, половины результата служат двумя независимыми хешами
+         */
+        private static long hash(String email) {
+            long hash = 0xcbf29ce484222325L;
+            for (byte b : email.getBytes(StandardCharsets.UTF_8)) {
+                hash ^= b;
+                hash *= 0x100000001b3L;
+            }
+            hash ^= hash >>> 33;
+            hash *= 0xff51afd7ed558ccdL;
+            hash ^= hash >>> 33;
+            return hash;
+        }
+    }
+}
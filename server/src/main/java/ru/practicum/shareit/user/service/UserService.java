@@ -3,12 +3,15 @@ package ru.practicum.shareit.user.service;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface UserService {
     UserDto create(UserDto userDto);
 
     List<UserDto> getAll();
 
+    void exportAll(Consumer<UserDto> action);
+
     UserDto getById(Long userId);
 
     UserDto update(Long userId, UserDto userDto);
@@ -1,48 +1,68 @@
 package ru.practicum.shareit.user.service.impl;
 
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.UnavailableDataException;
+import ru.practicum.shareit.item.cache.ItemCache;
+import ru.practicum.shareit.item.comment.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.logging.ServiceLog;
+import ru.practicum.shareit.request.model.Request;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.email.EmailFilter;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 import ru.practicum.shareit.user.service.UserService;
 
 import java.util.List;
+import java.util.Locale;
+import java.util.function.Consumer;
 
 @Slf4j
 @AllArgsConstructor
 @Service
 public class UserServiceImpl implements UserService {
+    private static final String EMAIL_CONSTRAINT = "UQ_USER_EMAIL";
+    private static final int EXPORT_PAGE_SIZE = 500;
 
     private final UserRepository userRepository;
     private final UserMapper userMapper;
+    private final ItemCache itemCache;
+    private final EntityManagerFactory entityManagerFactory;
+    private final EmailFilter emailFilter;
+    private final EntityManager entityManager;
 
     @Override
     @Transactional
     public UserDto create(UserDto userDto) {
-        log.debug("Обработка запроса на создание пользователя: {}", userDto);
+        ServiceLog.debug(log, "Обработка запроса на создание пользователя: {}", userDto);
 
         User user = userMapper.toUser(userDto);
-        if (userRepository.findByEmail(user.getEmail()).isPresent()) {
-            log.warn("Попытка создания пользователя с уже существующей электронной почтой: {}", user.getEmail());
-            throw new UnavailableDataException("Пользователь с такой электронной почтой уже существует");
-        }
-        userRepository.save(user);
+        checkEmailIsFree(user.getEmail());
+        saveWithUniqueEmail(user);
+        emailFilter.add(user.getEmail());
         UserDto createdUser = userMapper.toUserDto(user);
 
-        log.debug("Пользователь успешно создан: {}", createdUser);
+        ServiceLog.debug(log, "Пользователь успешно создан: {}", createdUser);
         return createdUser;
     }
 
     @Override
     @Transactional
     public UserDto update(Long id, UserDto userDto) {
-        log.debug("Обработка запроса на обновление данных пользователя по id: {}, новые данные: {}", id, userDto);
+        ServiceLog.debug(log, "Обработка запроса на обновление данных пользователя по id: {}, новые данные: {}", id, userDto);
 
         User user = userRepository.findById(id)
                 .orElseThrow(() -> {
@@ -50,49 +70,109 @@ public class UserServiceImpl implements UserService {
                     return new NotFoundException("Пользователь не найден");
                 });
 
+        boolean changed = false;
         if (userDto.getName() != null) {
+            changed = !userDto.getName().equals(user.getName());
             user.setName(userDto.getName());
         }
 
         if (userDto.getEmail() != null) {
-            if (userRepository.findByEmail(userDto.getEmail()).isPresent()) {
-                log.warn("Попытка создания пользователя с уже существующей электронной почтой: {}", user.getEmail());
-                throw new UnavailableDataException("Пользователь с такой электронной почтой уже существует");
-            }
+            checkEmailIsFree(userDto.getEmail());
+            changed |= !userDto.getEmail().equals(user.getEmail());
             user.setEmail(userDto.getEmail());
         }
-        userRepository.save(user);
+        saveWithUniqueEmail(user);
+        if (userDto.getEmail() != null) {
+            emailFilter.add(userDto.getEmail());
+        }
+        if (changed) {
+            // Имя автора комментария и бронирующий пользователь вложены в закэшированные вещи, какие именно - неизвестно
+            itemCache.clear();
+        }
         UserDto updatedUser = userMapper.toUserDto(user);
 
-        log.debug("Пользователь с id {} успешно обновлён: {}", id, updatedUser);
+        ServiceLog.debug(log, "Пользователь с id {} успешно обновлён: {}", id, updatedUser);
         return updatedUser;
     }
 
+    /**
+     * Адреса, которых нет в фильтре, заведомо свободны и в базе не проверяются
+     */
+    private void checkEmailIsFree(String email) {
+        if (emailFilter.mightContain(email) && userRepository.findByEmail(email).isPresent()) {
+            log.warn("Попытка создания пользователя с уже существующей электронной почтой: {}", email);
+            throw new UnavailableDataException("Пользователь с такой электронной почтой уже существует");
+        }
+    }
+
+    /**
+     * Окончательно уникальность почты проверяет ограничение UQ_USER_EMAIL: при гонке двух запросов с одним адресом
+     * второй получит нарушение ограничения. Нарушения других ограничений пробрасываются как есть
+     */
+    private void saveWithUniqueEmail(User user) {
+        try {
+            userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            if (!violatesEmailConstraint(e)) {
+                throw e;
+            }
+            log.warn("Электронная почта {} занята параллельным запросом", user.getEmail());
+            throw new UnavailableDataException("Пользователь с такой электронной почтой уже существует");
+        }
+    }
+
+    /**
+     * Имя ограничения берётся у Hibernate, а если он не смог его разобрать - из сообщения драйвера.
+     * H2 дописывает к имени суффикс индекса, Postgres переводит имя в нижний регистр
+     */
+    private static boolean violatesEmailConstraint(DataIntegrityViolationException e) {
+        String constraint = e.getCause() instanceof ConstraintViolationException violation ? violation.getConstraintName() : null;
+        String text = constraint != null ? constraint : e.getMostSpecificCause().getMessage();
+        return text != null && text.toUpperCase(Locale.ROOT).contains(EMAIL_CONSTRAINT);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public UserDto getById(Long id) {
-        log.debug("Обработка запроса на получение информации о пользователе по id: " + id);
+        ServiceLog.debug(log, "Обработка запроса на получение информации о пользователе по id: {}", id);
 
         UserDto foundUser = userRepository.findById(id)
                 .map(userMapper::toUserDto)
                 .orElseThrow(() -> new NotFoundException("Пользователь не найден"));
 
-        log.debug("По id {} найден пользователь: {}", id, foundUser);
+        ServiceLog.debug(log, "По id {} найден пользователь: {}", id, foundUser);
         return foundUser;
     }
 
     @Override
     @Transactional
     public void delete(Long id) {
-        log.debug("Обработка запроса на удаление пользователя по id: {}", id);
+        ServiceLog.debug(log, "Обработка запроса на удаление пользователя по id: {}", id);
 
         if (userRepository.findById(id).isEmpty()) {
             log.warn("Попытка удаления несуществующего пользователя с id: {}", id);
             throw new NotFoundException("Пользователь не найден");
         }
         userRepository.deleteById(id);
+        // Вещи, запросы и комментарии пользователя удаляются каскадно в базе, в обход кэшей, какие именно - неизвестно
+        itemCache.clear();
+        evictCascadedEntities();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                evictCascadedEntities();
+            }
+        });
+
+        ServiceLog.debug(log, "Пользователь с id {} успешно удалён", id);
+    }
 
-        log.debug("Пользователь с id {} успешно удалён", id);
+    private void evictCascadedEntities() {
+        Cache cache = entityManagerFactory.getCache();
+        cache.evict(Item.class);
+        cache.evict(Request.class);
+        cache.evict(Comment.class);
+        cache.unwrap(org.hibernate.Cache.class).evictQueryRegions();
     }
 
     @Override
@@ -105,7 +185,33 @@ public class UserServiceImpl implements UserService {
                 .map(userMapper::toUserDto)
                 .toList();
 
-        log.debug("Список найденных пользователей: {}", foundUsers);
+        ServiceLog.debugList(log, "Найдено пользователей: {}. Список: {}", foundUsers);
         return foundUsers;
     }
+
+    /**
+     * Передача всех пользователей в action по одному. Пользователи читаются страницами по id, каждая страница -
+     * отдельным коротким запросом в своей транзакции репозитория. Пока клиент читает выгрузку, соединение с базой
+     * не занято, а память не зависит от числа пользователей
+     */
+    @Override
+    public void exportAll(Consumer<UserDto> action) {
+        log.debug("Обработка запроса на выгрузку всех пользователей");
+
+        long afterId = 0;
+        long exported = 0;
+        List<User> page;
+        do {
+            page = userRepository.findPageAfter(afterId, Limit.of(EXPORT_PAGE_SIZE));
+            List<UserDto> users = page.stream().map(userMapper::toUserDto).toList();
+            page.forEach(entityManager::detach);
+            users.forEach(action);
+            exported += users.size();
+            if (!page.isEmpty()) {
+                afterId = page.getLast().getId();
+            }
+        } while (page.size() == EXPORT_PAGE_SIZE);
+
+        ServiceLog.debug(log, "Выгружено пользователей: {}", exported);
+    }
 }
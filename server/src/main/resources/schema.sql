@@ -1,4 +1,4 @@
-DROP TABLE IF EXISTS users, items, bookings, comments, requests CASCADE;
+DROP TABLE IF EXISTS users, items, bookings, comments, requests, suggestions, booking_events CASCADE;
 
 CREATE TABLE IF NOT EXISTS users (
     id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
@@ -24,6 +24,8 @@ CREATE TABLE IF NOT EXISTS items (
     available BOOLEAN NOT NULL,
     owner_id BIGINT NOT NULL,
     request_id BIGINT,
+    last_booking_id BIGINT,
+    next_booking_id BIGINT,
     CONSTRAINT pk_item PRIMARY KEY (id),
     CONSTRAINT fk_owner FOREIGN KEY (owner_id) REFERENCES users (id) ON DELETE CASCADE,
     CONSTRAINT fk_request FOREIGN KEY (request_id) REFERENCES requests (id) ON DELETE CASCADE
@@ -36,11 +38,15 @@ CREATE TABLE IF NOT EXISTS bookings (
     item_id BIGINT NOT NULL,
     booker_id BIGINT NOT NULL,
     status varchar(20) NOT NULL,
+    phase varchar(20) NOT NULL,
     CONSTRAINT pk_booking PRIMARY KEY (id),
     CONSTRAINT fk_item FOREIGN KEY (item_id) REFERENCES items (id),
     CONSTRAINT fk_booker FOREIGN KEY (booker_id) REFERENCES users (id)
 );
 
+ALTER TABLE items ADD CONSTRAINT fk_item_last_booking FOREIGN KEY (last_booking_id) REFERENCES bookings (id) ON DELETE SET NULL;
+ALTER TABLE items ADD CONSTRAINT fk_item_next_booking FOREIGN KEY (next_booking_id) REFERENCES bookings (id) ON DELETE SET NULL;
+
 CREATE TABLE IF NOT EXISTS comments (
     id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
     text TEXT NOT NULL,
@@ -50,4 +56,43 @@ CREATE TABLE IF NOT EXISTS comments (
     CONSTRAINT pk_comment PRIMARY KEY (id),
     CONSTRAINT fk_comment_item FOREIGN KEY (item_id) REFERENCES items (id) ON DELETE CASCADE,
     CONSTRAINT fk_comment_author FOREIGN KEY (author_id) REFERENCES users (id) ON DELETE CASCADE
-);
\ No newline at end of file
+);
+
+CREATE TABLE IF NOT EXISTS suggestions (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    request_id BIGINT NOT NULL,
+    item_id BIGINT NOT NULL,
+    score INTEGER NOT NULL,
+    CONSTRAINT pk_suggestion PRIMARY KEY (id),
+    CONSTRAINT fk_suggestion_request FOREIGN KEY (request_id) REFERENCES requests (id) ON DELETE CASCADE,
+    CONSTRAINT fk_suggestion_item FOREIGN KEY (item_id) REFERENCES items (id) ON DELETE CASCADE
+);
+
+CREATE TABLE IF NOT EXISTS booking_events (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    booking_id BIGINT NOT NULL,
+    item_id BIGINT NOT NULL,
+    owner_id BIGINT NOT NULL,
+    booker_id BIGINT NOT NULL,
+    status varchar(20) NOT NULL,
+    created TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    CONSTRAINT pk_booking_event PRIMARY KEY (id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_requests_requestor_created ON requests (requestor_id, created, id);
+CREATE INDEX IF NOT EXISTS idx_requests_created ON requests (created, id);
+
+CREATE INDEX IF NOT EXISTS idx_items_owner ON items (owner_id, id);
+CREATE INDEX IF NOT EXISTS idx_items_request ON items (request_id);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_item_start ON bookings (item_id, start_date);
+CREATE INDEX IF NOT EXISTS idx_bookings_item_end ON bookings (item_id, end_date);
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_start ON bookings (booker_id, start_date, id);
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_status ON bookings (booker_id, status);
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_phase_start ON bookings (booker_id, phase, start_date, id);
+CREATE INDEX IF NOT EXISTS idx_bookings_item_phase_start ON bookings (item_id, phase, start_date, id);
+
+CREATE INDEX IF NOT EXISTS idx_comments_item ON comments (item_id);
+
+CREATE INDEX IF NOT EXISTS idx_suggestions_request ON suggestions (request_id, score);
+CREATE INDEX IF NOT EXISTS idx_suggestions_item ON suggestions (item_id);
@@ -0,0 +1,184 @@
+package ru.practicum.shareit;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.enums.Phase;
+import ru.practicum.shareit.booking.enums.State;
+import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.comment.model.Comment;
+import ru.practicum.shareit.item.comment.repository.CommentRepository;
+import ru.practicum.shareit.item.dto.ItemByIdDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.pointer.ItemBookingPointers;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.dto.RequestDto;
+import ru.practicum.shareit.request.model.Request;
+import ru.practicum.shareit.request.repository.RequestRepository;
+import ru.practicum.shareit.request.service.RequestService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Число запросов к БД на каждый эндпоинт чтения не зависит от количества строк в ответе:
+ * связи загружаются лениво, а нужные маппингу сущности подтягиваются графами в том же запросе
+ */
+@Transactional
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+class FetchPlanQueryCountTest {
+
+    private static final int ROWS = 5;
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private RequestService requestService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private RequestRepository requestRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private ItemBookingPointers itemBookingPointers;
+
+    @PersistenceContext
+    private EntityManager em;
+
+    private User owner;
+    private User booker;
+    private User requestor;
+    private Request request;
+    private Booking booking;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(new User(null, "Owner", "fetch-owner@mail.com"));
+        booker = userRepository.save(new User(null, "Booker", "fetch-booker@mail.com"));
+        requestor = userRepository.save(new User(null, "Requestor", "fetch-requestor@mail.com"));
+        LocalDateTime now = LocalDateTime.now();
+        request = requestRepository.save(new Request(null, "Need items", requestor, now));
+
+        List<Item> items = new ArrayList<>();
+        List<Booking> bookings = new ArrayList<>();
+        List<Comment> comments = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            Item item = itemRepository.save(new Item(null, "Item " + i, "Description " + i, true, owner, request));
+            items.add(item);
+            bookings.add(new Booking(null, now.minusDays(i + 2), now.minusDays(i + 1), item, booker, Status.APPROVED, Phase.PAST));
+            bookings.add(new Booking(null, now.plusDays(i + 1), now.plusDays(i + 2), item, booker, Status.WAITING, Phase.FUTURE));
+            comments.add(new Comment(null, "Comment " + i, item, booker, now));
+        }
+        bookingRepository.saveAll(bookings);
+        commentRepository.saveAll(comments);
+        itemBookingPointers.reconcile();
+        booking = bookings.getFirst();
+
+        for (int i = 0; i < ROWS; i++) {
+            requestRepository.save(new Request(null, "Other need " + i, owner, now.minusHours(i)));
+        }
+    }
+
+    @Test
+    void shouldGetBookingInOneStatement() {
+        BookingDto found = measure(1, () -> bookingService.getBookingById(booking.getId(), booker.getId()));
+
+        assertEquals("Item 0", found.getItem().getName());
+        assertEquals(booker.getName(), found.getBooker().getName());
+    }
+
+    @Test
+    void shouldGetBookerBookingsInTwoStatements() {
+        List<BookingDto> found = measure(2, () -> bookingService.getAllBookings(booker.getId(), State.ALL, null, null, 20));
+
+        assertEquals(2 * ROWS, found.size());
+        assertTrue(found.stream().allMatch(dto -> dto.getItem().getRequestId().equals(request.getId())));
+    }
+
+    @Test
+    void shouldGetOwnerBookingsInTwoStatements() {
+        List<BookingDto> found = measure(2, () -> bookingService.getBookingsForOwner(owner.getId(), State.ALL, null, null, 20));
+
+        assertEquals(2 * ROWS, found.size());
+        assertTrue(found.stream().allMatch(dto -> dto.getBooker().getEmail().equals(booker.getEmail())));
+    }
+
+    @Test
+    void shouldGetOwnerItemsInTwoStatements() {
+        List<ItemByIdDto> found = measure(2, () -> itemService.getAllItems(owner.getId(), 0L, 20));
+
+        assertEquals(ROWS, found.size());
+        assertTrue(found.stream().allMatch(item -> item.getLastBooking() != null && item.getNextBooking() != null));
+        assertTrue(found.stream().allMatch(item -> item.getComments().size() == 1));
+    }
+
+    @Test
+    void shouldGetRequestWithItemsAndSuggestionsInThreeStatements() {
+        RequestDto found = measure(3, () -> requestService.getRequestById(request.getId(), owner.getId()));
+
+        assertEquals(requestor.getEmail(), found.getRequestor().getEmail());
+        assertEquals(ROWS, found.getItems().size());
+    }
+
+    @Test
+    void shouldGetOwnRequestsWithItemsInTwoStatements() {
+        List<RequestDto> found = measure(2, () -> requestService.getOwnRequests(requestor.getId(), null, null, 20));
+
+        assertEquals(1, found.size());
+        assertEquals(ROWS, found.getFirst().getItems().size());
+    }
+
+    @Test
+    void shouldGetOtherRequestsWithItemsInTwoStatements() {
+        List<RequestDto> found = measure(2, () -> requestService.getAllRequests(owner.getId(), null, null, 20));
+
+        assertEquals(1, found.size());
+        assertEquals(requestor.getEmail(), found.getFirst().getRequestor().getEmail());
+        assertEquals(ROWS, found.getFirst().getItems().size());
+    }
+
+    @Test
+    void shouldGetOwnRequestsWithoutItemsInTwoStatements() {
+        List<RequestDto> found = measure(2, () -> requestService.getOwnRequests(owner.getId(), null, null, 20));
+
+        assertEquals(ROWS, found.size());
+        assertTrue(found.stream().allMatch(dto -> dto.getRequestor().getName().equals(owner.getName())));
+    }
+
+    private <T> T measure(long expectedStatements, Supplier<T> call) {
+        em.flush();
+        em.clear();
+        em.getEntityManagerFactory().getCache().evictAll();
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        T result = call.get();
+
+        assertEquals(expectedStatements, statistics.getPrepareStatementCount());
+        return result;
+    }
+}
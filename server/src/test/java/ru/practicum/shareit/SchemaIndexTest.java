@@ -0,0 +1,55 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Проверка планов горячих запросов: ни один из них не должен читать таблицу целиком
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+class SchemaIndexTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            // BookingRepository: последнее/следующее бронирование и проверка пересечений
+            "SELECT * FROM bookings b WHERE b.item_id = 1 AND b.end_date < CURRENT_TIMESTAMP ORDER BY b.end_date DESC LIMIT 1",
+            "SELECT * FROM bookings b WHERE b.item_id = 1 AND b.start_date > CURRENT_TIMESTAMP ORDER BY b.start_date LIMIT 1",
+            "SELECT * FROM bookings b WHERE b.item_id = 1 AND b.status IN ('0', '1') AND b.start_date < CURRENT_TIMESTAMP AND b.end_date > CURRENT_TIMESTAMP",
+            "SELECT * FROM bookings b WHERE b.item_id IN (1, 2, 3) AND b.end_date < CURRENT_TIMESTAMP",
+            "SELECT * FROM bookings b WHERE b.item_id = 1 AND b.booker_id = 2",
+            // BookingRepository: страницы бронирований пользователя и владельца
+            "SELECT * FROM bookings b WHERE b.booker_id = 1 AND (b.start_date < CURRENT_TIMESTAMP OR (b.start_date = CURRENT_TIMESTAMP AND b.id < 10)) "
+                    + "ORDER BY b.start_date DESC, b.id DESC LIMIT 20",
+            "SELECT * FROM bookings b WHERE b.booker_id = 1 AND b.status = '0' ORDER BY b.start_date DESC, b.id DESC LIMIT 20",
+            "SELECT * FROM bookings b WHERE b.booker_id = 1 AND b.phase = '1' AND (b.start_date < CURRENT_TIMESTAMP OR (b.start_date = CURRENT_TIMESTAMP AND b.id < 10)) "
+                    + "ORDER BY b.start_date DESC, b.id DESC LIMIT 20",
+            "SELECT * FROM bookings b JOIN items i ON i.id = b.item_id WHERE i.owner_id = 1 ORDER BY b.start_date DESC, b.id DESC LIMIT 20",
+            // ItemRepository
+            "SELECT * FROM items i WHERE i.owner_id = 1 AND i.id > 0 ORDER BY i.id LIMIT 20",
+            "SELECT * FROM items i WHERE i.request_id = 1",
+            // CommentRepository
+            "SELECT * FROM comments c WHERE c.item_id = 1",
+            "SELECT * FROM comments c WHERE c.item_id IN (1, 2, 3)",
+            // RequestRepository
+            "SELECT * FROM requests r WHERE r.requestor_id = 1 AND r.created <= CURRENT_TIMESTAMP AND (r.created < CURRENT_TIMESTAMP OR r.id < 10) "
+                    + "ORDER BY r.created DESC, r.id DESC LIMIT 20",
+            "SELECT * FROM requests r WHERE r.requestor_id <> 1 AND r.created <= CURRENT_TIMESTAMP AND (r.created < CURRENT_TIMESTAMP OR r.id < 10) "
+                    + "ORDER BY r.created DESC, r.id DESC LIMIT 20",
+            // SuggestionRepository
+            "SELECT * FROM suggestions s WHERE s.request_id = 1 ORDER BY s.score DESC, s.id",
+            "DELETE FROM suggestions s WHERE s.item_id = 1"
+    })
+    void shouldNotScanWholeTable(String query) {
+        String plan = jdbcTemplate.queryForObject("EXPLAIN " + query, String.class);
+
+        assertFalse(plan.contains("tableScan"), plan);
+    }
+}
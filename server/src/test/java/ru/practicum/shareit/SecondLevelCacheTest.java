@@ -0,0 +1,152 @@
+package ru.practicum.shareit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.dto.CreateRequestDto;
+import ru.practicum.shareit.request.dto.RequestDto;
+import ru.practicum.shareit.request.service.RequestService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Кэш второго уровня заполняется только закоммиченными данными, поэтому тест работает без общей транзакции
+ * и сам удаляет созданных пользователей (вещи и запросы удаляются каскадно)
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+class SecondLevelCacheTest {
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private RequestService requestService;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @PersistenceContext
+    private EntityManager em;
+
+    private final List<Long> createdUsers = new ArrayList<>();
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        entityManagerFactory.getCache().evictAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    void tearDown() {
+        createdUsers.forEach(userService::delete);
+    }
+
+    @Test
+    void shouldLoadReferenceEntitiesFromSecondLevelCache() {
+        UserDto owner = createUser("l2-owner@mail.com");
+        ItemDto item = createItem(owner.getId(), null);
+        transactionTemplate.executeWithoutResult(status -> em.find(Item.class, item.getId()));
+        statistics.clear();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            assertEquals("Item", em.find(Item.class, item.getId()).getName());
+            assertEquals(owner.getEmail(), em.find(User.class, owner.getId()).getEmail());
+        });
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertTrue(statistics.getSecondLevelCacheHitCount() >= 2);
+    }
+
+    @Test
+    void shouldPublishRegionStatisticsAsCacheMetrics() {
+        UserDto owner = createUser("l2-metrics@mail.com");
+        ItemDto item = createItem(owner.getId(), null);
+        transactionTemplate.executeWithoutResult(status -> em.find(Item.class, item.getId()));
+        double hits = regionHits();
+
+        transactionTemplate.executeWithoutResult(status -> em.find(Item.class, item.getId()));
+
+        assertTrue(regionHits() > hits);
+    }
+
+    @Test
+    void shouldCacheItemsByRequestQuery() {
+        UserDto requestor = createUser("l2-requestor@mail.com");
+        UserDto owner = createUser("l2-request-owner@mail.com");
+        RequestDto request = requestService.create(new CreateRequestDto(requestor.getId(), "Need an item", LocalDateTime.now()));
+        createItem(owner.getId(), request.getId());
+        transactionTemplate.executeWithoutResult(status -> itemRepository.findByRequestId(request.getId()));
+        statistics.clear();
+
+        transactionTemplate.executeWithoutResult(status -> assertEquals(1, itemRepository.findByRequestId(request.getId()).size()));
+
+        assertEquals(1, statistics.getQueryCacheHitCount());
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void shouldEvictCascadedItemsOnUserDelete() {
+        UserDto owner = createUser("l2-deleted@mail.com");
+        ItemDto item = createItem(owner.getId(), null);
+        transactionTemplate.executeWithoutResult(status -> em.find(Item.class, item.getId()));
+        assertTrue(entityManagerFactory.getCache().contains(Item.class, item.getId()));
+
+        userService.delete(owner.getId());
+        createdUsers.remove(owner.getId());
+
+        assertFalse(entityManagerFactory.getCache().contains(Item.class, item.getId()));
+    }
+
+    private double regionHits() {
+        return meterRegistry.get("cache.gets")
+                .tag("cache.manager", "hibernate")
+                .tag("cache", Item.class.getName())
+                .tag("result", "hit")
+                .functionCounter().count();
+    }
+
+    private UserDto createUser(String email) {
+        UserDto user = new UserDto();
+        user.setName("User Name");
+        user.setEmail(email);
+        UserDto createdUser = userService.create(user);
+        createdUsers.add(createdUser.getId());
+        return createdUser;
+    }
+
+    private ItemDto createItem(Long ownerId, Long requestId) {
+        ItemDto itemDto = new ItemDto();
+        itemDto.setName("Item");
+        itemDto.setDescription("Item Description");
+        itemDto.setAvailable(true);
+        itemDto.setRequestId(requestId);
+        return itemService.create(itemDto, ownerId);
+    }
+}
@@ -23,6 +23,7 @@ import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
@@ -102,7 +103,7 @@ class BookingControllerTest {
         State state = State.ALL;
         List<BookingDto> bookings = List.of(new BookingDto());
 
-        when(bookingService.getAllBookings(eq(userId), eq(state))).thenReturn(bookings);
+        when(bookingService.getAllBookings(eq(userId), eq(state), isNull(), isNull(), eq(20))).thenReturn(bookings);
 
         mockMvc.perform(get("/bookings")
                         .param("state", String.valueOf(state))
@@ -117,7 +118,7 @@ class BookingControllerTest {
         State state = State.ALL;
         List<BookingDto> bookings = List.of(new BookingDto());
 
-        when(bookingService.getBookingsForOwner(eq(userId), eq(state))).thenReturn(bookings);
+        when(bookingService.getBookingsForOwner(eq(userId), eq(state), isNull(), isNull(), eq(20))).thenReturn(bookings);
 
         mockMvc.perform(get("/bookings/owner")
                         .param("state", String.valueOf(state))
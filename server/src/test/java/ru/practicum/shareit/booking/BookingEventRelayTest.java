@@ -0,0 +1,86 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import ru.practicum.shareit.booking.controller.BookingController;
+import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.booking.event.BookingEvent;
+import ru.practicum.shareit.booking.event.BookingEventDto;
+import ru.practicum.shareit.booking.event.BookingEventRelay;
+import ru.practicum.shareit.booking.event.BookingEventRepository;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.service.BookingService;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+class BookingEventRelayTest {
+
+    private final BookingEventRepository bookingEventRepository = mock(BookingEventRepository.class);
+    private final BookingMapper bookingMapper = mock(BookingMapper.class);
+    private final BookingEventRelay relay = new BookingEventRelay(bookingEventRepository, bookingMapper, Duration.ofMinutes(1), 10);
+    private final BookingService bookingService = mock(BookingService.class);
+    private final MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new BookingController(bookingService)).build();
+
+    @AfterEach
+    void tearDown() {
+        relay.shutdown();
+    }
+
+    @Test
+    void shouldDeliverEventToOwnerAndBookerAndDeleteItFromOutbox() throws Exception {
+        when(bookingService.subscribe(anyLong())).thenAnswer(invocation -> relay.subscribe(invocation.getArgument(0)));
+        MvcResult owner = subscribe(1L);
+        MvcResult booker = subscribe(2L);
+        MvcResult stranger = subscribe(3L);
+
+        BookingEvent event = new BookingEvent(7L, 5L, 4L, 1L, 2L, Status.WAITING, LocalDateTime.now());
+        when(bookingEventRepository.findByOrderByIdAsc(any(Limit.class))).thenReturn(List.of(event));
+        when(bookingMapper.toBookingEventDto(event))
+                .thenReturn(new BookingEventDto(7L, 5L, 4L, Status.WAITING, event.getCreated()));
+
+        relay.relay();
+
+        awaitEvent(owner);
+        awaitEvent(booker);
+        assertFalse(stranger.getResponse().getContentAsString().contains(BookingEventRelay.EVENT_NAME));
+        verify(bookingEventRepository).deleteAllByIdInBatch(List.of(7L));
+    }
+
+    @Test
+    void shouldNotDeleteAnythingWhenOutboxIsEmpty() {
+        when(bookingEventRepository.findByOrderByIdAsc(any(Limit.class))).thenReturn(List.of());
+
+        relay.relay();
+
+        verify(bookingEventRepository, never()).deleteAllByIdInBatch(any());
+    }
+
+    private MvcResult subscribe(Long userId) throws Exception {
+        return mockMvc.perform(get("/bookings/events").header("X-Sharer-User-Id", userId))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+    }
+
+    private static void awaitEvent(MvcResult result) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!result.getResponse().getContentAsString().contains("event:" + BookingEventRelay.EVENT_NAME)) {
+            assertTrue(System.nanoTime() < deadline, "Событие не доставлено подписчику");
+            Thread.sleep(10);
+        }
+    }
+}
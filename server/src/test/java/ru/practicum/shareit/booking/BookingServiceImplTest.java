@@ -7,10 +7,14 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.CreateBookingDto;
 import ru.practicum.shareit.booking.enums.State;
 import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.booking.event.BookingEvent;
+import ru.practicum.shareit.booking.lifecycle.BookingLifecycleScheduler;
+import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.UnavailableDataException;
@@ -20,6 +24,7 @@ import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -37,6 +42,8 @@ class BookingServiceImplTest {
     private UserService userService;
     @Autowired
     private ItemService itemService;
+    @Autowired
+    private BookingLifecycleScheduler bookingLifecycleScheduler;
 
     @PersistenceContext
     private EntityManager em;
@@ -143,6 +150,35 @@ class BookingServiceImplTest {
         assertEquals("Нельзя забронировать свою же вещь", exception.getMessage());
     }
 
+    @Test
+    void shouldFailCreateOverlappingBooking() {
+        UserDto owner = new UserDto();
+        owner.setName("Owner");
+        owner.setEmail("owner@mail.com");
+        UserDto createdOwner = userService.create(owner);
+
+        UserDto booker = new UserDto();
+        booker.setName("Booker");
+        booker.setEmail("booker@mail.com");
+        UserDto createdBooker = userService.create(booker);
+
+        ItemDto itemDto = new ItemDto();
+        itemDto.setName("Item");
+        itemDto.setDescription("Description");
+        itemDto.setAvailable(true);
+        ItemDto createdItem = itemService.create(itemDto, createdOwner.getId());
+
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        bookingService.create(new CreateBookingDto(createdItem.getId(), start, start.plusDays(2)), createdBooker.getId());
+
+        CreateBookingDto overlapping = new CreateBookingDto(createdItem.getId(), start.plusDays(1), start.plusDays(3));
+        Exception exception = assertThrows(UnavailableDataException.class, () -> bookingService.create(overlapping, createdBooker.getId()));
+        assertEquals("Вещь уже забронирована на указанный период", exception.getMessage());
+
+        BookingDto adjacent = bookingService.create(new CreateBookingDto(createdItem.getId(), start.plusDays(2), start.plusDays(3)), createdBooker.getId());
+        assertNotNull(adjacent.getId());
+    }
+
     @Test
     void shouldUpdatedStatusBooking() {
         UserDto owner = new UserDto();
@@ -316,12 +352,12 @@ class BookingServiceImplTest {
         CreateBookingDto bookingDto = new CreateBookingDto(createdItem.getId(),
                 LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2));
         bookingService.create(bookingDto, createdBooker.getId());
-        List<BookingDto> bookings = bookingService.getAllBookings(createdBooker.getId(), State.WAITING);
+        List<BookingDto> bookings = bookingService.getAllBookings(createdBooker.getId(), State.WAITING, null, null, 20);
 
         assertFalse(bookings.isEmpty());
         assertEquals(bookings.size(), 1);
 
-        bookings = bookingService.getAllBookings(createdBooker.getId(), State.PAST);
+        bookings = bookingService.getAllBookings(createdBooker.getId(), State.PAST, null, null, 20);
 
         assertNotNull(bookings);
         assertTrue(bookings.isEmpty());
@@ -334,15 +370,53 @@ class BookingServiceImplTest {
         booker.setEmail("AnotherUser@mail.com");
         UserDto createdBooker = userService.create(booker);
 
-        List<BookingDto> bookings = bookingService.getAllBookings(createdBooker.getId(), State.ALL);
+        List<BookingDto> bookings = bookingService.getAllBookings(createdBooker.getId(), State.ALL, null, null, 20);
 
         assertNotNull(bookings);
         assertTrue(bookings.isEmpty());
     }
 
+    @Test
+    void shouldGetAllBookingsByKeysetPages() {
+        UserDto owner = new UserDto();
+        owner.setName("User Name");
+        owner.setEmail("User@mail.com");
+        UserDto createdOwner = userService.create(owner);
+
+        UserDto booker = new UserDto();
+        booker.setName("Another User Name");
+        booker.setEmail("AnotherUser@mail.com");
+        UserDto createdBooker = userService.create(booker);
+
+        ItemDto itemDto = new ItemDto();
+        itemDto.setName("Item");
+        itemDto.setDescription("Item Description");
+        itemDto.setAvailable(true);
+        ItemDto createdItem = itemService.create(itemDto, createdOwner.getId());
+
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        for (int i = 0; i < 5; i++) {
+            bookingService.create(new CreateBookingDto(createdItem.getId(),
+                    start.plusDays(2L * i), start.plusDays(2L * i + 1)), createdBooker.getId());
+        }
+
+        List<BookingDto> firstPage = bookingService.getAllBookings(createdBooker.getId(), State.ALL, null, null, 2);
+        BookingDto last = firstPage.getLast();
+        List<BookingDto> secondPage = bookingService.getAllBookings(createdBooker.getId(), State.ALL, last.getStart(), last.getId(), 2);
+        last = secondPage.getLast();
+        List<BookingDto> thirdPage = bookingService.getAllBookings(createdBooker.getId(), State.ALL, last.getStart(), last.getId(), 2);
+
+        assertEquals(2, firstPage.size());
+        assertEquals(2, secondPage.size());
+        assertEquals(1, thirdPage.size());
+        assertEquals(start.plusDays(8), firstPage.getFirst().getStart());
+        assertEquals(start.plusDays(4), secondPage.getFirst().getStart());
+        assertEquals(start, thirdPage.getFirst().getStart());
+    }
+
     @Test
     void shouldFailGetAllBookingsWithInvalidUser() {
-        Exception exception = assertThrows(RuntimeException.class, () -> bookingService.getAllBookings(999L, State.ALL));
+        Exception exception = assertThrows(RuntimeException.class, () -> bookingService.getAllBookings(999L, State.ALL, null, null, 20));
         assertEquals("Пользователь не найден", exception.getMessage());
     }
 
@@ -373,7 +447,7 @@ class BookingServiceImplTest {
         CreateBookingDto bookingDto = new CreateBookingDto(createdItem.getId(),
                 LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2));
         bookingService.create(bookingDto, createdBooker.getId());
-        List<BookingDto> bookings = bookingService.getBookingsForOwner(createdOwner.getId(), State.WAITING);
+        List<BookingDto> bookings = bookingService.getBookingsForOwner(createdOwner.getId(), State.WAITING, null, null, 20);
 
         assertEquals(bookings.size(), 1);
 
@@ -381,15 +455,196 @@ class BookingServiceImplTest {
                 LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2));
         bookingService.create(anotherBookingDto, createdBooker.getId());
 
-        bookings = bookingService.getBookingsForOwner(createdOwner.getId(), State.WAITING);
+        bookings = bookingService.getBookingsForOwner(createdOwner.getId(), State.WAITING, null, null, 20);
 
         assertEquals(bookings.size(), 2);
     }
 
     @Test
     void shouldFailGetBookingsForOwnerWithInvalidUser() {
-        Exception exception = assertThrows(RuntimeException.class, () -> bookingService.getBookingsForOwner(999L, State.ALL));
+        Exception exception = assertThrows(RuntimeException.class, () -> bookingService.getBookingsForOwner(999L, State.ALL, null, null, 20));
         assertEquals("Пользователь не найден", exception.getMessage());
     }
-}
 
+    @Test
+    void shouldCreateBookingsInBatchWithPerItemResults() {
+        UserDto owner = new UserDto();
+        owner.setName("User Name");
+        owner.setEmail("User@mail.com");
+        UserDto createdOwner = userService.create(owner);
+
+        UserDto booker = new UserDto();
+        booker.setName("Another User Name");
+        booker.setEmail("AnotherUser@mail.com");
+        UserDto createdBooker = userService.create(booker);
+
+        ItemDto itemDto = new ItemDto();
+        itemDto.setName("Item");
+        itemDto.setDescription("Item Description");
+        itemDto.setAvailable(true);
+        ItemDto createdItem = itemService.create(itemDto, createdOwner.getId());
+        ItemDto ownItem = itemService.create(itemDto, createdBooker.getId());
+
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.MICROS);
+        List<BookingBatchResultDto> results = bookingService.createAll(List.of(
+                new CreateBookingDto(createdItem.getId(), start, start.plusDays(1)),
+                new CreateBookingDto(createdItem.getId(), start.plusHours(12), start.plusDays(2)),
+                new CreateBookingDto(createdItem.getId(), start.plusDays(1), start.plusDays(2)),
+                new CreateBookingDto(ownItem.getId(), start, start.plusDays(1)),
+                new CreateBookingDto(999L, start, start.plusDays(1))), createdBooker.getId());
+
+        assertEquals(List.of(0, 1, 2, 3, 4), results.stream().map(BookingBatchResultDto::getIndex).toList());
+        assertNotNull(results.get(0).getBooking().getId());
+        assertEquals("Вещь уже забронирована на указанный период", results.get(1).getError());
+        assertNotNull(results.get(2).getBooking().getId());
+        assertEquals("Нельзя забронировать свою же вещь", results.get(3).getError());
+        assertEquals("Вещь не найдена", results.get(4).getError());
+
+        Booking saved = em.find(Booking.class, results.get(2).getBooking().getId());
+        assertEquals(Status.WAITING, saved.getStatus());
+        assertEquals(start.plusDays(1), saved.getStart());
+    }
+
+    @Test
+    void shouldUpdateBookingsInBatchWithPerItemResults() {
+        UserDto owner = new UserDto();
+        owner.setName("User Name");
+        owner.setEmail("User@mail.com");
+        UserDto createdOwner = userService.create(owner);
+
+        UserDto booker = new UserDto();
+        booker.setName("Another User Name");
+        booker.setEmail("AnotherUser@mail.com");
+        UserDto createdBooker = userService.create(booker);
+
+        ItemDto itemDto = new ItemDto();
+        itemDto.setName("Item");
+        itemDto.setDescription("Item Description");
+        itemDto.setAvailable(true);
+        ItemDto createdItem = itemService.create(itemDto, createdOwner.getId());
+
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        BookingDto first = bookingService.create(new CreateBookingDto(createdItem.getId(), start, start.plusDays(1)), createdBooker.getId());
+        BookingDto second = bookingService.create(new CreateBookingDto(createdItem.getId(), start.plusDays(2), start.plusDays(3)), createdBooker.getId());
+
+        List<BookingBatchResultDto> results = bookingService.updateAll(
+                List.of(first.getId(), second.getId(), first.getId(), 999L), true, createdOwner.getId());
+
+        assertEquals(Status.APPROVED, results.get(0).getBooking().getStatus());
+        assertEquals(Status.APPROVED, results.get(1).getBooking().getStatus());
+        assertEquals("Нельзя изменить статус бронирования, если оно уже обработано", results.get(2).getError());
+        assertEquals("Бронирование не найдено", results.get(3).getError());
+        assertEquals("Только владелец вещи может изменить статус бронирования",
+                bookingService.updateAll(List.of(second.getId()), false, createdBooker.getId()).getFirst().getError());
+
+        em.flush();
+        em.clear();
+        assertEquals(Status.APPROVED, em.find(Booking.class, second.getId()).getStatus());
+    }
+
+    @Test
+    void shouldWriteBookingEventsInBookingTransaction() {
+        UserDto owner = new UserDto();
+        owner.setName("User Name");
+        owner.setEmail("User@mail.com");
+        UserDto createdOwner = userService.create(owner);
+
+        UserDto booker = new UserDto();
+        booker.setName("Another User Name");
+        booker.setEmail("AnotherUser@mail.com");
+        UserDto createdBooker = userService.create(booker);
+
+        ItemDto itemDto = new ItemDto();
+        itemDto.setName("Item");
+        itemDto.setDescription("Item Description");
+        itemDto.setAvailable(true);
+        ItemDto createdItem = itemService.create(itemDto, createdOwner.getId());
+
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        BookingDto createdBooking = bookingService.create(new CreateBookingDto(createdItem.getId(), start, start.plusDays(1)), createdBooker.getId());
+        bookingService.update(createdBooking.getId(), false, createdOwner.getId());
+
+        em.flush();
+        List<BookingEvent> events = em.createQuery(
+                        "SELECT e FROM BookingEvent e WHERE e.bookingId = :bookingId ORDER BY e.id", BookingEvent.class)
+                .setParameter("bookingId", createdBooking.getId())
+                .getResultList();
+
+        assertEquals(List.of(Status.WAITING, Status.REJECTED), events.stream().map(BookingEvent::getStatus).toList());
+        assertEquals(createdOwner.getId(), events.getFirst().getOwnerId());
+        assertEquals(createdBooker.getId(), events.getFirst().getBookerId());
+        assertEquals(createdItem.getId(), events.getFirst().getItemId());
+    }
+
+    @Test
+    void shouldFailSubscribeToBookingEventsWithInvalidUser() {
+        assertThrows(NotFoundException.class, () -> bookingService.subscribe(999L));
+    }
+
+    @Test
+    void shouldMoveBookingsThroughPhasesAndExpireWaiting() {
+        UserDto owner = new UserDto();
+        owner.setName("User Name");
+        owner.setEmail("User@mail.com");
+        UserDto createdOwner = userService.create(owner);
+
+        UserDto booker = new UserDto();
+        booker.setName("Another User Name");
+        booker.setEmail("AnotherUser@mail.com");
+        UserDto createdBooker = userService.create(booker);
+
+        ItemDto itemDto = new ItemDto();
+        itemDto.setName("Item");
+        itemDto.setDescription("Item Description");
+        itemDto.setAvailable(true);
+        ItemDto createdItem = itemService.create(itemDto, createdOwner.getId());
+
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        BookingDto approved = bookingService.create(new CreateBookingDto(createdItem.getId(), start, start.plusDays(1)), createdBooker.getId());
+        bookingService.update(approved.getId(), true, createdOwner.getId());
+        BookingDto waiting = bookingService.create(new CreateBookingDto(createdItem.getId(), start.plusDays(2), start.plusDays(3)), createdBooker.getId());
+        assertEquals(2, bookingService.getAllBookings(createdBooker.getId(), State.FUTURE, null, null, 20).size());
+
+        bookingLifecycleScheduler.transition(List.of(approved.getId(), waiting.getId()), start.plusDays(2).plusHours(1));
+
+        assertEquals(List.of(approved.getId()), bookingService.getAllBookings(createdBooker.getId(), State.PAST, null, null, 20).stream()
+                .map(BookingDto::getId).toList());
+        List<BookingDto> current = bookingService.getBookingsForOwner(createdOwner.getId(), State.CURRENT, null, null, 20);
+        assertEquals(List.of(waiting.getId()), current.stream().map(BookingDto::getId).toList());
+        assertEquals(Status.CANCELED, current.getFirst().getStatus());
+    }
+
+    @Test
+    void shouldReconcileBookingWithLostTimer() {
+        UserDto owner = new UserDto();
+        owner.setName("User Name");
+        owner.setEmail("User@mail.com");
+        UserDto createdOwner = userService.create(owner);
+
+        UserDto booker = new UserDto();
+        booker.setName("Another User Name");
+        booker.setEmail("AnotherUser@mail.com");
+        UserDto createdBooker = userService.create(booker);
+
+        ItemDto itemDto = new ItemDto();
+        itemDto.setName("Item");
+        itemDto.setDescription("Item Description");
+        itemDto.setAvailable(true);
+        ItemDto createdItem = itemService.create(itemDto, createdOwner.getId());
+
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        BookingDto booking = bookingService.create(new CreateBookingDto(createdItem.getId(), start, start.plusDays(1)), createdBooker.getId());
+        bookingService.update(booking.getId(), true, createdOwner.getId());
+        em.createQuery("UPDATE Booking b SET b.start = :start, b.end = :end WHERE b.id = :bookingId")
+                .setParameter("start", LocalDateTime.now().minusDays(2))
+                .setParameter("end", LocalDateTime.now().minusDays(1))
+                .setParameter("bookingId", booking.getId())
+                .executeUpdate();
+        em.clear();
+
+        bookingLifecycleScheduler.reconcile();
+
+        assertEquals(List.of(booking.getId()), bookingService.getAllBookings(createdBooker.getId(), State.PAST, null, null, 20).stream()
+                .map(BookingDto::getId).toList());
+    }
+}
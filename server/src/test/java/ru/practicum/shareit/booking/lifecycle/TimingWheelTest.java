@@ -0,0 +1,65 @@
+package ru.practicum.shareit.booking.lifecycle;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimingWheelTest {
+
+    private static final long START = 1_700_000_000L;
+
+    @Test
+    void shouldFireEachTimerAtItsDeadlineAcrossLevels() {
+        TimingWheel wheel = new TimingWheel(START);
+        Random random = new Random(42);
+        long[] deadlines = new long[2000];
+        for (int i = 0; i < deadlines.length; i++) {
+            deadlines[i] = START + 1 + random.nextInt(300_000);
+            wheel.schedule(deadlines[i], i);
+        }
+
+        long[] fired = new long[deadlines.length];
+        for (long now = START + 1; now <= START + 300_000; now++) {
+            long tick = now;
+            wheel.advance(now, id -> fired[(int) id] = tick);
+        }
+
+        for (int i = 0; i < deadlines.length; i++) {
+            assertEquals(deadlines[i], fired[i], "Таймер " + i);
+        }
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void shouldFireOverdueTimersOnNextTick() {
+        TimingWheel wheel = new TimingWheel(START);
+        wheel.schedule(START - 100, 1);
+        wheel.schedule(START, 2);
+
+        List<Long> fired = new ArrayList<>();
+        wheel.advance(START, fired::add);
+        assertTrue(fired.isEmpty());
+
+        wheel.advance(START + 1, fired::add);
+        assertEquals(List.of(1L, 2L), fired);
+    }
+
+    @Test
+    void shouldCatchUpAfterLongPause() {
+        TimingWheel wheel = new TimingWheel(START);
+        wheel.schedule(START + 10, 1);
+        wheel.schedule(START + 5_000, 2);
+        wheel.schedule(START + 400_000, 3);
+
+        List<Long> fired = new ArrayList<>();
+        wheel.advance(START + 10_000, fired::add);
+
+        assertEquals(List.of(1L, 2L), fired);
+        assertEquals(1, wheel.size());
+    }
+}
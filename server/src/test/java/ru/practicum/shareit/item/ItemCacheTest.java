@@ -0,0 +1,115 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.item.cache.ItemCache;
+import ru.practicum.shareit.item.cache.ItemDetails;
+import ru.practicum.shareit.item.cache.ItemView;
+import ru.practicum.shareit.item.cache.OwnerBookings;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class ItemCacheTest {
+    private static final Long OWNER_ID = 1L;
+    private static final Long USER_ID = 2L;
+
+    private final ItemCache itemCache = new ItemCache(new ConcurrentMapCacheManager(ItemCache.DETAILS, ItemCache.OWNER_BOOKINGS));
+
+    @Test
+    void shouldCacheLoadedDetails() {
+        AtomicInteger loads = new AtomicInteger();
+        ItemView view = view(OWNER_ID);
+
+        itemCache.get(10L, USER_ID, LocalDateTime.now(), () -> {
+            loads.incrementAndGet();
+            return view;
+        });
+        ItemView cached = itemCache.get(10L, USER_ID, LocalDateTime.now(), () -> {
+            loads.incrementAndGet();
+            return view;
+        });
+
+        assertSame(view.details(), cached.details());
+        assertNull(cached.ownerBookings().nextBooking());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void shouldTakeOwnerBookingsFromTheSameLoad() {
+        AtomicInteger loads = new AtomicInteger();
+        ItemView view = view(OWNER_ID);
+
+        itemCache.get(10L, USER_ID, LocalDateTime.now(), () -> {
+            loads.incrementAndGet();
+            return view;
+        });
+        ItemView owned = itemCache.get(10L, OWNER_ID, LocalDateTime.now(), () -> {
+            loads.incrementAndGet();
+            return view;
+        });
+
+        assertSame(view.ownerBookings(), owned.ownerBookings());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void shouldNotCacheOwnerBookingsLoadedAcrossEviction() {
+        AtomicInteger loads = new AtomicInteger();
+
+        itemCache.get(10L, OWNER_ID, LocalDateTime.now(), () -> {
+            loads.incrementAndGet();
+            itemCache.evictOwnerBookings(10L);
+            return view(OWNER_ID);
+        });
+        ItemView fresh = view(OWNER_ID);
+        ItemView reloaded = itemCache.get(10L, OWNER_ID, LocalDateTime.now(), () -> {
+            loads.incrementAndGet();
+            return fresh;
+        });
+
+        assertSame(fresh.ownerBookings(), reloaded.ownerBookings());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void shouldNotCacheDetailsLoadedAcrossEviction() {
+        AtomicInteger loads = new AtomicInteger();
+
+        itemCache.get(10L, USER_ID, LocalDateTime.now(), () -> {
+            loads.incrementAndGet();
+            itemCache.evictDetails(10L);
+            return view(OWNER_ID);
+        });
+        ItemView fresh = view(OWNER_ID);
+        ItemView reloaded = itemCache.get(10L, USER_ID, LocalDateTime.now(), () -> {
+            loads.incrementAndGet();
+            return fresh;
+        });
+
+        assertSame(fresh.details(), reloaded.details());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void shouldNotCacheDetailsLoadedAcrossClear() {
+        itemCache.get(10L, USER_ID, LocalDateTime.now(), () -> {
+            itemCache.clear();
+            return view(OWNER_ID);
+        });
+        ItemView fresh = view(OWNER_ID);
+
+        assertSame(fresh.details(), itemCache.get(10L, USER_ID, LocalDateTime.now(), () -> fresh).details());
+    }
+
+    private static ItemView view(Long ownerId) {
+        BookingDto next = new BookingDto();
+        next.setStart(LocalDateTime.now().plusDays(1));
+        return new ItemView(new ItemDetails(ownerId, null), new OwnerBookings(null, next));
+    }
+}
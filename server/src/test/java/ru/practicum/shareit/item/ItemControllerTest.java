@@ -19,6 +19,7 @@ import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
@@ -93,9 +94,9 @@ class ItemControllerTest {
     @Test
     void shouldGetAllItems() throws Exception {
         Long userId = 1L;
-        List<ItemDto> items = List.of(new ItemDto());
+        List<ItemByIdDto> items = List.of(new ItemByIdDto());
 
-        when(itemService.getAllItems(eq(userId))).thenReturn(items);
+        when(itemService.getAllItems(eq(userId), eq(0L), eq(20))).thenReturn(items);
 
         mockMvc.perform(get("/items")
                         .header("X-Sharer-User-Id", userId))
@@ -108,7 +109,7 @@ class ItemControllerTest {
         String text = "Item";
         List<ItemDto> items = List.of(new ItemDto());
 
-        when(itemService.searchItems(eq(text))).thenReturn(items);
+        when(itemService.searchItems(eq(text), isNull(), isNull())).thenReturn(items);
 
         mockMvc.perform(get("/items/search")
                         .param("text", text))
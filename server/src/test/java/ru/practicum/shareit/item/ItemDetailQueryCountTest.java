@@ -0,0 +1,110 @@
+package ru.practicum.shareit.item;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.enums.Phase;
+import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.cache.ItemCache;
+import ru.practicum.shareit.item.dto.ItemByIdDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.pointer.ItemBookingPointers;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Slf4j
+@Transactional
+@SpringBootTest(
+        properties = "spring.jpa.properties.hibernate.generate_statistics=true",
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+class ItemDetailQueryCountTest {
+
+    private static final int[] HISTORY_SIZES = {10, 100, 1000};
+    private static final long MAX_STATEMENTS = 2;
+
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemCache itemCache;
+    @Autowired
+    private ItemBookingPointers itemBookingPointers;
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Test
+    void shouldGetItemWithConstantQueryCountAsHistoryGrows() {
+        UserDto owner = new UserDto();
+        owner.setName("Owner");
+        owner.setEmail("owner@mail.com");
+        UserDto createdOwner = userService.create(owner);
+
+        UserDto booker = new UserDto();
+        booker.setName("Booker");
+        booker.setEmail("booker@mail.com");
+        UserDto createdBooker = userService.create(booker);
+
+        ItemDto itemDto = new ItemDto();
+        itemDto.setName("Item");
+        itemDto.setDescription("Item Description");
+        itemDto.setAvailable(true);
+        ItemDto createdItem = itemService.create(itemDto, createdOwner.getId());
+
+        Item item = em.getReference(Item.class, createdItem.getId());
+        User bookerRef = em.getReference(User.class, createdBooker.getId());
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+
+        List<Long> statementCounts = new ArrayList<>();
+        int seeded = 0;
+        for (int historySize : HISTORY_SIZES) {
+            List<Booking> bookings = new ArrayList<>();
+            for (; seeded < historySize; seeded++) {
+                LocalDateTime start = LocalDateTime.now().minusDays(2L * historySize).plusDays(seeded % 2 == 0 ? seeded : 3L * historySize + seeded);
+                bookings.add(new Booking(null, start, start.plusHours(1), item, bookerRef, Status.APPROVED,
+                        Phase.at(start, start.plusHours(1), LocalDateTime.now())));
+            }
+            bookingRepository.saveAll(bookings);
+            itemBookingPointers.reconcile();
+            em.flush();
+            em.clear();
+
+            itemCache.clear();
+            em.getEntityManagerFactory().getCache().evictAll();
+            statistics.clear();
+            long startedAt = System.nanoTime();
+            ItemByIdDto foundItem = itemService.getItemById(createdItem.getId(), createdOwner.getId());
+            long elapsedMicros = (System.nanoTime() - startedAt) / 1_000;
+            long statements = statistics.getPrepareStatementCount();
+            em.clear();
+
+            log.info("История бронирований: {}, запросов к БД: {}, время: {} мкс", historySize, statements, elapsedMicros);
+            assertNotNull(foundItem.getLastBooking());
+            assertNotNull(foundItem.getNextBooking());
+            statementCounts.add(statements);
+        }
+
+        assertTrue(statementCounts.getFirst() <= MAX_STATEMENTS);
+        assertTrue(statementCounts.stream().allMatch(statementCounts.getFirst()::equals));
+    }
+}
@@ -0,0 +1,48 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+class ItemSearchIndexTest {
+
+    private final ItemSearchIndex index = new ItemSearchIndex(mock(ItemRepository.class));
+
+    @Test
+    void shouldFindBySubstringIgnoringCase() {
+        index.index(new Item(1L, "Дрель", "Аккумуляторная дрель", true, null));
+        index.index(new Item(2L, "Отвёртка", "Крестовая отвёртка", true, null));
+
+        assertEquals(List.of(1L), index.search("ДРЕ"));
+        assertEquals(List.of(1L), index.search("ляторная др"));
+        assertEquals(List.of(2L), index.search("тв"));
+        assertEquals(List.of(1L, 2L), index.search("р"));
+    }
+
+    @Test
+    void shouldNotFindUnavailableItems() {
+        index.index(new Item(1L, "Дрель", "Аккумуляторная дрель", false, null));
+
+        assertTrue(index.search("дрель").isEmpty());
+    }
+
+    @Test
+    void shouldReindexUpdatedItem() {
+        Item item = new Item(1L, "Дрель", "Аккумуляторная дрель", true, null);
+        index.index(item);
+
+        item.setName("Перфоратор");
+        item.setDescription("Ударный перфоратор");
+        index.index(item);
+
+        assertTrue(index.search("дрель").isEmpty());
+        assertEquals(List.of(1L), index.search("удар"));
+    }
+}
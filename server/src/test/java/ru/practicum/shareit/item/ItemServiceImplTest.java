@@ -9,12 +9,17 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.CreateBookingDto;
+import ru.practicum.shareit.booking.lifecycle.BookingLifecycleScheduler;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.UnavailableDataException;
+import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.comment.dto.CommentDto;
+import ru.practicum.shareit.item.dto.AvailabilityIntervalDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemByIdDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.pointer.ItemBookingPointers;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
@@ -35,6 +40,10 @@ class ItemServiceImplTest {
     private UserService userService;
     @Autowired
     private BookingService bookingService;
+    @Autowired
+    private BookingLifecycleScheduler bookingLifecycleScheduler;
+    @Autowired
+    private ItemBookingPointers itemBookingPointers;
 
     @PersistenceContext
     private EntityManager em;
@@ -170,6 +179,44 @@ class ItemServiceImplTest {
         assertEquals("Item", foundItem.getName());
     }
 
+    @Test
+    void shouldGetCachedItemUntilItChanges() {
+        UserDto owner = new UserDto();
+        owner.setName("User Name");
+        owner.setEmail("User@mail.com");
+        UserDto createdOwner = userService.create(owner);
+
+        UserDto booker = new UserDto();
+        booker.setName("Another User Name");
+        booker.setEmail("AnotherUser@mail.com");
+        UserDto createdBooker = userService.create(booker);
+
+        ItemDto itemDto = new ItemDto();
+        itemDto.setName("Item");
+        itemDto.setDescription("Item Description");
+        itemDto.setAvailable(true);
+        ItemDto createdItem = itemService.create(itemDto, createdOwner.getId());
+
+        assertEquals("Item", itemService.getItemById(createdItem.getId(), createdBooker.getId()).getName());
+        assertNull(itemService.getItemById(createdItem.getId(), createdOwner.getId()).getNextBooking());
+
+        em.createQuery("UPDATE Item i SET i.name = 'Changed outside service' WHERE i.id = :id")
+                .setParameter("id", createdItem.getId())
+                .executeUpdate();
+        assertEquals("Item", itemService.getItemById(createdItem.getId(), createdBooker.getId()).getName());
+
+        itemDto.setName("Updated Item");
+        itemService.update(createdItem.getId(), itemDto, createdOwner.getId());
+        bookingService.create(new CreateBookingDto(createdItem.getId(),
+                LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2)), createdBooker.getId());
+
+        ItemByIdDto publicView = itemService.getItemById(createdItem.getId(), createdBooker.getId());
+        ItemByIdDto ownerView = itemService.getItemById(createdItem.getId(), createdOwner.getId());
+        assertEquals("Updated Item", publicView.getName());
+        assertNull(publicView.getNextBooking());
+        assertNotNull(ownerView.getNextBooking());
+    }
+
     @Test
     void shouldGetItemIfItemNotFound() {
         Exception exception = assertThrows(NotFoundException.class, () -> itemService.getItemById(999L, 1L));
@@ -196,11 +243,86 @@ class ItemServiceImplTest {
         itemDto2.setAvailable(true);
         itemService.create(itemDto2, createdOwner.getId());
 
-        List<ItemDto> items = itemService.getAllItems(createdOwner.getId());
+        List<ItemByIdDto> items = itemService.getAllItems(createdOwner.getId(), 0L, 20);
 
         assertEquals(2, items.size());
     }
 
+    @Test
+    void shouldGetAllItemsPageWithBookings() {
+        UserDto owner = new UserDto();
+        owner.setName("Owner");
+        owner.setEmail("owner@mail.com");
+        UserDto createdOwner = userService.create(owner);
+
+        UserDto booker = new UserDto();
+        booker.setName("Booker");
+        booker.setEmail("booker@mail.com");
+        UserDto createdBooker = userService.create(booker);
+
+        ItemDto itemDto1 = new ItemDto();
+        itemDto1.setName("Item");
+        itemDto1.setDescription("Item Description");
+        itemDto1.setAvailable(true);
+        ItemDto createdItem1 = itemService.create(itemDto1, createdOwner.getId());
+
+        ItemDto itemDto2 = new ItemDto();
+        itemDto2.setName("Another Item");
+        itemDto2.setDescription("Another Item Description");
+        itemDto2.setAvailable(true);
+        ItemDto createdItem2 = itemService.create(itemDto2, createdOwner.getId());
+
+        BookingDto nextBooking = bookingService.create(new CreateBookingDto(createdItem2.getId(),
+                LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2)), createdBooker.getId());
+
+        List<ItemByIdDto> firstPage = itemService.getAllItems(createdOwner.getId(), 0L, 1);
+        List<ItemByIdDto> secondPage = itemService.getAllItems(createdOwner.getId(), firstPage.getFirst().getId(), 1);
+
+        assertEquals(1, firstPage.size());
+        assertEquals(createdItem1.getId(), firstPage.getFirst().getId());
+        assertNull(firstPage.getFirst().getNextBooking());
+        assertEquals(1, secondPage.size());
+        assertEquals(createdItem2.getId(), secondPage.getFirst().getId());
+        assertEquals(nextBooking.getId(), secondPage.getFirst().getNextBooking().getId());
+        assertTrue(secondPage.getFirst().getComments().isEmpty());
+    }
+
+    @Test
+    void shouldAdvanceBookingPointersAndRepairDrift() {
+        UserDto owner = new UserDto();
+        owner.setName("Owner");
+        owner.setEmail("owner@mail.com");
+        UserDto createdOwner = userService.create(owner);
+
+        UserDto booker = new UserDto();
+        booker.setName("Booker");
+        booker.setEmail("booker@mail.com");
+        UserDto createdBooker = userService.create(booker);
+
+        ItemDto itemDto = new ItemDto();
+        itemDto.setName("Item");
+        itemDto.setDescription("Item Description");
+        itemDto.setAvailable(true);
+        ItemDto createdItem = itemService.create(itemDto, createdOwner.getId());
+
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        BookingDto later = bookingService.create(new CreateBookingDto(createdItem.getId(), start.plusDays(2), start.plusDays(3)), createdBooker.getId());
+        BookingDto first = bookingService.create(new CreateBookingDto(createdItem.getId(), start, start.plusDays(1)), createdBooker.getId());
+        assertEquals(first.getId(), itemService.getItemById(createdItem.getId(), createdOwner.getId()).getNextBooking().getId());
+
+        bookingLifecycleScheduler.transition(List.of(first.getId()), start.plusDays(1).plusHours(1));
+
+        ItemByIdDto advanced = itemService.getAllItems(createdOwner.getId(), 0L, 20).getFirst();
+        assertEquals(first.getId(), advanced.getLastBooking().getId());
+        assertEquals(later.getId(), advanced.getNextBooking().getId());
+
+        itemBookingPointers.reconcile();
+
+        ItemByIdDto repaired = itemService.getItemById(createdItem.getId(), createdOwner.getId());
+        assertNull(repaired.getLastBooking());
+        assertEquals(first.getId(), repaired.getNextBooking().getId());
+    }
+
     @Test
     void shouldSearchItem() {
         UserDto owner = new UserDto();
@@ -220,14 +342,60 @@ class ItemServiceImplTest {
         itemDto2.setAvailable(true);
         itemService.create(itemDto2, createdOwner.getId());
 
-        List<ItemDto> results = itemService.searchItems("Item");
+        List<ItemDto> results = itemService.searchItems("Item", null, null);
         assertEquals(1, results.size());
         assertEquals("Item", results.get(0).getName());
     }
 
+    @Test
+    void shouldSearchOnlyItemsWithoutApprovedBookingsInWindow() {
+        UserDto owner = new UserDto();
+        owner.setName("Owner");
+        owner.setEmail("Owner@mail.com");
+        UserDto createdOwner = userService.create(owner);
+
+        UserDto booker = new UserDto();
+        booker.setName("Booker");
+        booker.setEmail("Booker@mail.com");
+        UserDto createdBooker = userService.create(booker);
+
+        ItemDto itemDto1 = new ItemDto();
+        itemDto1.setName("Drill");
+        itemDto1.setDescription("Drill Description");
+        itemDto1.setAvailable(true);
+        ItemDto bookedItem = itemService.create(itemDto1, createdOwner.getId());
+
+        ItemDto itemDto2 = new ItemDto();
+        itemDto2.setName("Another Drill");
+        itemDto2.setDescription("Another Drill Description");
+        itemDto2.setAvailable(true);
+        ItemDto waitingItem = itemService.create(itemDto2, createdOwner.getId());
+
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        BookingDto approved = bookingService.create(new CreateBookingDto(bookedItem.getId(), start, start.plusDays(2)), createdBooker.getId());
+        bookingService.update(approved.getId(), true, createdOwner.getId());
+        bookingService.create(new CreateBookingDto(waitingItem.getId(), start, start.plusDays(2)), createdBooker.getId());
+
+        List<ItemDto> free = itemService.searchItems("drill", start.plusDays(1), start.plusDays(3));
+        assertEquals(List.of(waitingItem.getId()), free.stream().map(ItemDto::getId).toList());
+
+        assertEquals(2, itemService.searchItems("drill", start.plusDays(2), start.plusDays(3)).size());
+        assertEquals(2, itemService.searchItems("drill", null, null).size());
+    }
+
+    @Test
+    void shouldRejectSearchWithIncompleteOrEmptyWindow() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+
+        assertThrows(ValidationException.class, () -> itemService.searchItems("drill", start, null));
+        assertThrows(ValidationException.class, () -> itemService.searchItems("drill", null, start));
+        assertThrows(ValidationException.class, () -> itemService.searchItems("drill", start, start));
+        assertThrows(ValidationException.class, () -> itemService.searchItems("drill", start, start.minusHours(1)));
+    }
+
     @Test
     void shouldNotSearchItemsIfTextIsBlank() {
-        List<ItemDto> results = itemService.searchItems("");
+        List<ItemDto> results = itemService.searchItems("", null, null);
         assertTrue(results.isEmpty());
     }
 
@@ -346,4 +514,44 @@ class ItemServiceImplTest {
 
         assertEquals("Пользователь не может оставить комментарий, так как аренда вещи еще не завершена.", exception.getMessage());
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldGetAvailabilityWithMergedBusyIntervals() {
+        UserDto owner = new UserDto();
+        owner.setName("User Name");
+        owner.setEmail("User@mail.com");
+        UserDto createdOwner = userService.create(owner);
+
+        UserDto booker = new UserDto();
+        booker.setName("Another User Name");
+        booker.setEmail("AnotherUser@mail.com");
+        UserDto createdBooker = userService.create(booker);
+
+        ItemDto itemDto = new ItemDto();
+        itemDto.setName("Item");
+        itemDto.setDescription("Item Description");
+        itemDto.setAvailable(true);
+        ItemDto createdItem = itemService.create(itemDto, createdOwner.getId());
+
+        LocalDateTime from = LocalDateTime.now().plusDays(1);
+        bookingService.create(new CreateBookingDto(createdItem.getId(), from.plusHours(1), from.plusHours(2)), createdBooker.getId());
+        BookingDto approved = bookingService.create(new CreateBookingDto(createdItem.getId(), from.plusHours(2), from.plusHours(3)), createdBooker.getId());
+        bookingService.update(approved.getId(), true, createdOwner.getId());
+
+        ItemAvailabilityDto availability = itemService.getAvailability(createdItem.getId(), from, from.plusHours(4));
+
+        assertEquals(List.of(
+                new AvailabilityIntervalDto(from, from.plusHours(1), true),
+                new AvailabilityIntervalDto(from.plusHours(1), from.plusHours(3), false),
+                new AvailabilityIntervalDto(from.plusHours(3), from.plusHours(4), true)), availability.getIntervals());
+
+        List<ItemAvailabilityDto> multiple = itemService.getAvailability(List.of(createdItem.getId(), 999L), from.plusHours(2), from.plusHours(3));
+        assertEquals(1, multiple.size());
+        assertEquals(List.of(new AvailabilityIntervalDto(from.plusHours(2), from.plusHours(3), false)), multiple.getFirst().getIntervals());
+    }
+
+    @Test
+    void shouldFailGetAvailabilityIfItemNotFound() {
+        assertThrows(NotFoundException.class, () -> itemService.getAvailability(999L, null, null));
+    }
+}
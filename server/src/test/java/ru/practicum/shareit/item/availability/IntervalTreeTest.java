@@ -0,0 +1,123 @@
+package ru.practicum.shareit.item.availability;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IntervalTreeTest {
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    private final IntervalTree tree = new IntervalTree();
+
+    @Test
+    void shouldKeepBookingsWithEqualStart() {
+        tree.insert(1L, at(10), at(20));
+        tree.insert(2L, at(10), at(15));
+        tree.insert(3L, at(10), at(30));
+
+        assertEquals(List.of(period(10, 20), period(10, 15), period(10, 30)), query(0, 100));
+
+        assertTrue(tree.remove(2L, at(10)));
+        assertEquals(List.of(period(10, 20), period(10, 30)), query(0, 100));
+    }
+
+    @Test
+    void shouldReplaceReinsertedBooking() {
+        tree.insert(1L, at(10), at(20));
+        tree.insert(1L, at(10), at(40));
+
+        assertEquals(List.of(period(10, 40)), query(0, 100));
+        assertEquals(List.of(period(10, 40)), query(30, 35));
+
+        assertTrue(tree.remove(1L, at(10)));
+        assertTrue(tree.isEmpty());
+    }
+
+    @Test
+    void shouldIgnoreRemovalOfMissingBooking() {
+        tree.insert(1L, at(10), at(20));
+
+        assertFalse(tree.remove(2L, at(10)));
+        assertFalse(tree.remove(1L, at(11)));
+        assertFalse(tree.isEmpty());
+        assertEquals(List.of(period(10, 20)), query(0, 100));
+
+        assertTrue(tree.remove(1L, at(10)));
+        assertFalse(tree.remove(1L, at(10)));
+        assertTrue(tree.isEmpty());
+    }
+
+    @Test
+    void shouldFindOverlappingAndNestedIntervals() {
+        tree.insert(1L, at(0), at(100));
+        tree.insert(2L, at(10), at(20));
+        tree.insert(3L, at(15), at(30));
+        tree.insert(4L, at(40), at(50));
+        tree.insert(5L, at(60), at(70));
+
+        assertEquals(List.of(period(0, 100), period(10, 20), period(15, 30)), query(18, 25));
+        assertEquals(List.of(period(0, 100), period(40, 50)), query(42, 45));
+        assertEquals(List.of(period(0, 100)), query(80, 90));
+    }
+
+    @Test
+    void shouldTreatWindowAsHalfOpen() {
+        tree.insert(1L, at(10), at(20));
+
+        assertTrue(query(0, 10).isEmpty());
+        assertTrue(query(20, 30).isEmpty());
+        assertEquals(List.of(period(10, 20)), query(5, 11));
+        assertEquals(List.of(period(10, 20)), query(19, 25));
+    }
+
+    @Test
+    void shouldMatchLinearScanOnRandomIntervals() {
+        Random random = new Random(42);
+        List<long[]> intervals = new ArrayList<>();
+        for (long id = 1; id <= 500; id++) {
+            int start = random.nextInt(1000);
+            int end = start + 1 + random.nextInt(50);
+            tree.insert(id, at(start), at(end));
+            intervals.add(new long[]{id, start, end});
+        }
+        for (int i = 0; i < 200; i++) {
+            long[] removed = intervals.remove(random.nextInt(intervals.size()));
+            assertTrue(tree.remove(removed[0], at((int) removed[1])));
+        }
+        intervals.sort(Comparator.<long[]>comparingLong(interval -> interval[1]).thenComparingLong(interval -> interval[0]));
+
+        for (int i = 0; i < 100; i++) {
+            int from = random.nextInt(1000);
+            int to = from + 1 + random.nextInt(100);
+            List<List<LocalDateTime>> expected = new ArrayList<>();
+            for (long[] interval : intervals) {
+                if (interval[1] < to && interval[2] > from) {
+                    expected.add(period((int) interval[1], (int) interval[2]));
+                }
+            }
+            assertEquals(expected, query(from, to));
+        }
+    }
+
+    private List<List<LocalDateTime>> query(int from, int to) {
+        List<List<LocalDateTime>> found = new ArrayList<>();
+        tree.query(at(from), at(to), (start, end) -> found.add(List.of(start, end)));
+        return found;
+    }
+
+    private static List<LocalDateTime> period(int start, int end) {
+        return List.of(at(start), at(end));
+    }
+
+    private static LocalDateTime at(int hours) {
+        return BASE.plusHours(hours);
+    }
+}
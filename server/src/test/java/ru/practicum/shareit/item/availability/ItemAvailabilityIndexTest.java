@@ -0,0 +1,111 @@
+package ru.practicum.shareit.item.availability;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.availability.ItemAvailabilityIndex.Interval;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+class ItemAvailabilityIndexTest {
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    private final ItemAvailabilityIndex index = new ItemAvailabilityIndex(mock(BookingRepository.class));
+    private final Item item = new Item(1L, "Дрель", "Аккумуляторная дрель", true, null);
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void shouldClipBusyIntervalsAtBothWindowEdges() {
+        index.add(booking(1L, 0, 20));
+        index.add(booking(2L, 40, 50));
+        index.add(booking(3L, 80, 120));
+
+        assertEquals(List.of(interval(10, 20), interval(40, 50), interval(80, 100)), index.busy(1L, at(10), at(100)));
+        assertEquals(List.of(interval(45, 48)), index.busy(1L, at(45), at(48)));
+    }
+
+    @Test
+    void shouldMergeOverlappingNestedAndAdjacentBookings() {
+        index.add(booking(1L, 0, 30));
+        index.add(booking(2L, 5, 10));
+        index.add(booking(3L, 20, 40));
+        index.add(booking(4L, 40, 50));
+        index.add(booking(5L, 60, 70));
+
+        assertEquals(List.of(interval(0, 50), interval(60, 70)), index.busy(1L, at(0), at(100)));
+    }
+
+    @Test
+    void shouldRemoveAddedBookingOnRollback() {
+        index.add(booking(1L, 0, 10));
+        TransactionSynchronizationManager.initSynchronization();
+        index.add(booking(2L, 20, 30));
+
+        assertEquals(List.of(interval(0, 10), interval(20, 30)), index.busy(1L, at(0), at(100)));
+
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertEquals(List.of(interval(0, 10)), index.busy(1L, at(0), at(100)));
+    }
+
+    @Test
+    void shouldKeepAddedBookingOnCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        index.add(booking(1L, 0, 10));
+
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        assertEquals(List.of(interval(0, 10)), index.busy(1L, at(0), at(100)));
+    }
+
+    @Test
+    void shouldRemoveBookingOnlyAfterCommit() {
+        index.add(booking(1L, 0, 10));
+        TransactionSynchronizationManager.initSynchronization();
+        index.remove(booking(1L, 0, 10));
+
+        assertEquals(List.of(interval(0, 10)), index.busy(1L, at(0), at(100)));
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        assertTrue(index.busy(1L, at(0), at(100)).isEmpty());
+    }
+
+    private static void complete(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+    }
+
+    private Booking booking(Long id, int start, int end) {
+        return Booking.builder()
+                .id(id)
+                .item(item)
+                .start(at(start))
+                .end(at(end))
+                .build();
+    }
+
+    private static Interval interval(int start, int end) {
+        return new Interval(at(start), at(end));
+    }
+
+    private static LocalDateTime at(int hours) {
+        return BASE.plusHours(hours);
+    }
+}
@@ -0,0 +1,47 @@
+package ru.practicum.shareit.logging;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class DebugRateLimiterTest {
+    private static final long WINDOW = 1_000;
+
+    private final AtomicLong clock = new AtomicLong();
+    private final DebugRateLimiter limiter = new DebugRateLimiter(2, WINDOW, clock::get);
+    private final Logger log = mock(Logger.class);
+
+    @Test
+    void shouldDropMessagesOverLimitWithinWindow() {
+        assertTrue(limiter.tryAcquire(log));
+        assertTrue(limiter.tryAcquire(log));
+        assertFalse(limiter.tryAcquire(log));
+        assertFalse(limiter.tryAcquire(log));
+
+        verify(log, never()).debug(anyString(), eq(2L));
+    }
+
+    @Test
+    void shouldReportDroppedMessagesInNextWindow() {
+        limiter.tryAcquire(log);
+        limiter.tryAcquire(log);
+        limiter.tryAcquire(log);
+        limiter.tryAcquire(log);
+
+        clock.addAndGet(WINDOW);
+
+        assertTrue(limiter.tryAcquire(log));
+        assertTrue(limiter.tryAcquire(log));
+        assertFalse(limiter.tryAcquire(log));
+        verify(log).debug(anyString(), eq(2L));
+    }
+}
@@ -0,0 +1,47 @@
+package ru.practicum.shareit.logging;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ServiceLogTest {
+
+    @Test
+    void shouldLimitCollectionElements() {
+        List<Integer> values = IntStream.range(0, 25).boxed().toList();
+
+        assertEquals("[0, 1, 2, 3, 4, 5, 6, 7, 8, 9, ... ещё 15]", ServiceLog.abbreviate(values));
+        assertEquals("[1, 2]", ServiceLog.abbreviate(List.of(1, 2)));
+    }
+
+    @Test
+    void shouldLimitPayloadLength() {
+        String abbreviated = ServiceLog.abbreviate("x".repeat(5000));
+
+        assertEquals(ServiceLog.MAX_LENGTH + 3, abbreviated.length());
+        assertTrue(abbreviated.endsWith("..."));
+    }
+
+    @Test
+    void shouldStopFormattingElementsAfterLengthLimit() {
+        List<Object> values = new ArrayList<>();
+        values.add("x".repeat(ServiceLog.MAX_LENGTH));
+        values.add(new Object() {
+            @Override
+            public String toString() {
+                throw new AssertionError("Элемент за пределом длины не должен форматироваться");
+            }
+        });
+
+        String abbreviated = ServiceLog.abbreviate(values);
+
+        assertEquals(ServiceLog.MAX_LENGTH + 3, abbreviated.length());
+        assertTrue(abbreviated.startsWith("[xxx"));
+        assertTrue(abbreviated.endsWith("x..."));
+    }
+}
@@ -0,0 +1,89 @@
+package ru.practicum.shareit.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SqlCountingDataSourceTest {
+
+    @Test
+    void shouldCountStatementsAndFetchedRows() throws SQLException {
+        DataSource target = mock(DataSource.class);
+        Connection connection = mock(Connection.class);
+        PreparedStatement statement = mock(PreparedStatement.class);
+        ResultSet resultSet = mock(ResultSet.class);
+        when(target.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement("SELECT 1")).thenReturn(statement);
+        when(statement.executeQuery()).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true, true, false);
+
+        SqlStatistics.start();
+        try (Connection counted = new SqlCountingDataSource(target).getConnection();
+             PreparedStatement countedStatement = counted.prepareStatement("SELECT 1")) {
+            ResultSet rows = countedStatement.executeQuery();
+            while (rows.next()) {
+                rows.getLong(1);
+            }
+            countedStatement.executeUpdate();
+        }
+        SqlStatistics statistics = SqlStatistics.stop();
+
+        assertEquals(2, statistics.getStatements());
+        assertEquals(2, statistics.getRows());
+    }
+
+    @Test
+    void shouldNotCountOutsideOfRequest() throws Exception {
+        DataSource target = mock(DataSource.class);
+        Connection connection = mock(Connection.class);
+        PreparedStatement statement = mock(PreparedStatement.class);
+        when(target.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement("SELECT 1")).thenReturn(statement);
+        SqlCountingDataSource dataSource = new SqlCountingDataSource(target);
+
+        SqlStatistics.start();
+        Thread background = new Thread(() -> {
+            try {
+                dataSource.getConnection().prepareStatement("SELECT 1").execute();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        background.start();
+        background.join();
+
+        assertEquals(0, SqlStatistics.stop().getStatements());
+    }
+
+    @Test
+    void shouldCountPropagatedTaskInRequestStatistics() throws Exception {
+        DataSource target = mock(DataSource.class);
+        Connection connection = mock(Connection.class);
+        PreparedStatement statement = mock(PreparedStatement.class);
+        when(target.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement("SELECT 1")).thenReturn(statement);
+        SqlCountingDataSource dataSource = new SqlCountingDataSource(target);
+
+        SqlStatistics statistics = SqlStatistics.start();
+        Thread async = new Thread(SqlStatistics.propagate(() -> {
+            try {
+                dataSource.getConnection().prepareStatement("SELECT 1").execute();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        }));
+        SqlStatistics.stop();
+        async.start();
+        async.join();
+
+        assertEquals(1, statistics.getStatements());
+    }
+}
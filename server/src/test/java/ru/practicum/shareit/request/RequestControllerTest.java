@@ -14,10 +14,12 @@ import ru.practicum.shareit.request.dto.CreateRequestDto;
 import ru.practicum.shareit.request.dto.RequestDto;
 import ru.practicum.shareit.request.service.RequestService;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -78,7 +80,7 @@ class RequestControllerTest {
         Long userId = 2L;
         List<RequestDto> requests = List.of(new RequestDto());
 
-        when(requestService.getOwnRequests(eq(userId))).thenReturn(requests);
+        when(requestService.getOwnRequests(eq(userId), isNull(), isNull(), eq(20))).thenReturn(requests);
 
         mockMvc.perform(get("/requests")
                         .header("X-Sharer-User-Id", userId))
@@ -91,10 +93,11 @@ class RequestControllerTest {
         Long userId = 2L;
         List<RequestDto> requests = List.of(new RequestDto());
 
-        when(requestService.getAllRequests(eq(userId), eq(0), eq(10))).thenReturn(requests);
+        when(requestService.getAllRequests(eq(userId), eq(LocalDateTime.of(2024, 1, 1, 12, 0)), eq(5L), eq(10))).thenReturn(requests);
 
         mockMvc.perform(get("/requests/all")
-                        .param("from", "0")
+                        .param("afterCreated", "2024-01-01T12:00:00")
+                        .param("afterId", "5")
                         .param("size", "10")
                         .header("X-Sharer-User-Id", userId))
                 .andExpect(status().isOk())
@@ -0,0 +1,88 @@
+package ru.practicum.shareit.request;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.model.Request;
+import ru.practicum.shareit.request.repository.RequestRepository;
+import ru.practicum.shareit.request.suggestion.RequestMatchIndex;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RequestMatchIndexTest {
+
+    private final RequestRepository requestRepository = mock(RequestRepository.class);
+    private final RequestMatchIndex index = new RequestMatchIndex(requestRepository, mock(ItemRepository.class));
+    private final User requestor = new User(1L, "Requestor", "requestor@mail.com");
+    private final User owner = new User(2L, "Owner", "owner@mail.com");
+
+    @Test
+    void shouldRankRequestsBySharedWords() {
+        index.index(new Request(1L, "Нужна аккумуляторная дрель", requestor, LocalDateTime.now()));
+        index.index(new Request(2L, "Ищу дрель", requestor, LocalDateTime.now()));
+        index.index(new Request(3L, "Нужна палатка", requestor, LocalDateTime.now()));
+
+        Map<Long, Integer> matches = index.match(new Item(1L, "Дрель", "Аккумуляторная дрель", true, owner), 10);
+
+        assertEquals(List.of(1L, 2L), List.copyOf(matches.keySet()));
+        assertEquals(2, matches.get(1L));
+        assertEquals(1, matches.get(2L));
+    }
+
+    @Test
+    void shouldNotMatchOwnOrClosedRequests() {
+        index.index(new Request(1L, "Нужна дрель", owner, LocalDateTime.now()));
+        index.index(new Request(2L, "Ищу дрель", requestor, LocalDateTime.now()));
+        index.close(2L);
+
+        assertTrue(index.match(new Item(1L, "Дрель", "Ударная дрель", true, owner), 10).isEmpty());
+    }
+
+    @Test
+    void shouldLimitMatches() {
+        for (long id = 1; id <= 5; id++) {
+            index.index(new Request(id, "Нужна дрель", requestor, LocalDateTime.now()));
+        }
+
+        assertEquals(List.of(1L, 2L, 3L), List.copyOf(index.match(new Item(1L, "Дрель", "Ударная дрель", true, owner), 3).keySet()));
+    }
+
+    @Test
+    void shouldIndexRequestOnlyAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            index.index(new Request(1L, "Нужна дрель", requestor, LocalDateTime.now()));
+            Item item = new Item(1L, "Дрель", "Ударная дрель", true, owner);
+
+            assertTrue(index.match(item, 10).isEmpty());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            assertEquals(List.of(1L), List.copyOf(index.match(item, 10).keySet()));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void shouldRecheckStaleRequestInsteadOfClosing() {
+        Request request = new Request(1L, "Нужна дрель", requestor, LocalDateTime.now());
+        index.index(request);
+        when(requestRepository.findAllById(anyIterable())).thenReturn(List.of(request));
+        Item item = new Item(1L, "Дрель", "Ударная дрель", true, owner);
+
+        index.markStale(1L);
+
+        assertEquals(List.of(1L), List.copyOf(index.match(item, 10).keySet()));
+    }
+}
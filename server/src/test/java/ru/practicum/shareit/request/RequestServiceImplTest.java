@@ -8,12 +8,17 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemForRequestByIdDto;
+import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.request.dto.CreateRequestDto;
 import ru.practicum.shareit.request.dto.RequestDto;
 import ru.practicum.shareit.request.service.RequestService;
+import ru.practicum.shareit.request.suggestion.RequestMatchIndex;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -29,6 +34,10 @@ class RequestServiceImplTest {
     private RequestService requestService;
     @Autowired
     private UserService userService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private RequestMatchIndex requestMatchIndex;
 
     @PersistenceContext
     private EntityManager em;
@@ -99,7 +108,7 @@ class RequestServiceImplTest {
         requestDto2.setDescription("Another Request Description");
         requestService.create(requestDto2);
 
-        List<RequestDto> requests = requestService.getOwnRequests(createdUser.getId());
+        List<RequestDto> requests = requestService.getOwnRequests(createdUser.getId(), null, null, 20);
 
         assertEquals(2, requests.size());
     }
@@ -121,9 +130,94 @@ class RequestServiceImplTest {
         requestDto.setDescription("Request Description");
         requestService.create(requestDto);
 
-        List<RequestDto> requests = requestService.getAllRequests(createdUser2.getId(), 0, 10);
+        List<RequestDto> requests = requestService.getAllRequests(createdUser2.getId(), null, null, 10);
 
         assertEquals(1, requests.size());
         assertEquals("Request Description", requests.get(0).getDescription());
     }
+
+    @Test
+    void shouldGetAllRequestsByKeysetPagesWithItems() {
+        UserDto requestor = new UserDto();
+        requestor.setName("Requestor");
+        requestor.setEmail("requestor@mail.com");
+        UserDto createdRequestor = userService.create(requestor);
+
+        UserDto owner = new UserDto();
+        owner.setName("Owner");
+        owner.setEmail("owner@mail.com");
+        UserDto createdOwner = userService.create(owner);
+
+        List<RequestDto> createdRequests = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            CreateRequestDto requestDto = new CreateRequestDto();
+            requestDto.setUserId(createdRequestor.getId());
+            requestDto.setDescription("Request " + i);
+            createdRequests.add(requestService.create(requestDto));
+        }
+
+        ItemDto itemDto = new ItemDto();
+        itemDto.setName("Item");
+        itemDto.setDescription("Item Description");
+        itemDto.setAvailable(true);
+        itemDto.setRequestId(createdRequests.getFirst().getId());
+        itemService.create(itemDto, createdOwner.getId());
+
+        List<RequestDto> firstPage = requestService.getAllRequests(createdOwner.getId(), null, null, 2);
+        RequestDto last = firstPage.getLast();
+        List<RequestDto> secondPage = requestService.getAllRequests(createdOwner.getId(), last.getCreated(), last.getId(), 2);
+
+        assertEquals(List.of("Request 2", "Request 1"), firstPage.stream().map(RequestDto::getDescription).toList());
+        assertEquals(List.of("Request 0"), secondPage.stream().map(RequestDto::getDescription).toList());
+        assertTrue(firstPage.stream().allMatch(request -> request.getItems().isEmpty()));
+        assertEquals("Item", secondPage.getFirst().getItems().getFirst().getName());
+
+        List<RequestDto> ownRequests = requestService.getOwnRequests(createdRequestor.getId(), null, null, 20);
+        assertEquals(3, ownRequests.size());
+        assertEquals(1, ownRequests.getLast().getItems().size());
+    }
+
+    @Test
+    void shouldSuggestMatchingItemsForOpenRequest() {
+        UserDto requestor = new UserDto();
+        requestor.setName("Requestor");
+        requestor.setEmail("requestor@mail.com");
+        UserDto createdRequestor = userService.create(requestor);
+
+        UserDto owner = new UserDto();
+        owner.setName("Owner");
+        owner.setEmail("owner@mail.com");
+        UserDto createdOwner = userService.create(owner);
+
+        CreateRequestDto requestDto = new CreateRequestDto();
+        requestDto.setUserId(createdRequestor.getId());
+        requestDto.setDescription("Need a cordless drill");
+        RequestDto createdRequest = requestService.create(requestDto);
+        // Запрос попадает в индекс после фиксации, а тестовая транзакция не фиксируется
+        requestMatchIndex.rebuild();
+
+        ItemDto drill = new ItemDto();
+        drill.setName("Drill");
+        drill.setDescription("Cordless drill with two batteries");
+        drill.setAvailable(true);
+        ItemDto createdDrill = itemService.create(drill, createdOwner.getId());
+
+        ItemDto tent = new ItemDto();
+        tent.setName("Tent");
+        tent.setDescription("Tent for four people");
+        tent.setAvailable(true);
+        ItemDto createdTent = itemService.create(tent, createdOwner.getId());
+
+        RequestDto foundRequest = requestService.getRequestById(createdRequest.getId(), createdRequestor.getId());
+        assertEquals(List.of(createdDrill.getId()), foundRequest.getSuggestions().stream().map(ItemForRequestByIdDto::getId).toList());
+        assertTrue(foundRequest.getItems().isEmpty());
+
+        tent.setDescription("Tent and a cordless drill");
+        itemService.update(createdTent.getId(), tent, createdOwner.getId());
+        drill.setAvailable(false);
+        itemService.update(createdDrill.getId(), drill, createdOwner.getId());
+
+        foundRequest = requestService.getRequestById(createdRequest.getId(), createdRequestor.getId());
+        assertEquals(List.of(createdTent.getId()), foundRequest.getSuggestions().stream().map(ItemForRequestByIdDto::getId).toList());
+    }
 }
@@ -0,0 +1,64 @@
+package ru.practicum.shareit.user;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.SliceImpl;
+import ru.practicum.shareit.user.email.EmailFilter;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class EmailFilterTest {
+
+    private final EmailFilter filter = new EmailFilter(mock(UserRepository.class));
+
+    @Test
+    void shouldContainAddedEmails() {
+        IntStream.range(0, 500).forEach(i -> filter.add("user" + i + "@mail.com"));
+
+        IntStream.range(0, 500).forEach(i -> assertTrue(filter.mightContain("user" + i + "@mail.com")));
+    }
+
+    @Test
+    void shouldRejectMostUnknownEmails() {
+        IntStream.range(0, 500).forEach(i -> filter.add("user" + i + "@mail.com"));
+
+        long falsePositives = IntStream.range(0, 10_000)
+                .filter(i -> filter.mightContain("other" + i + "@mail.com"))
+                .count();
+
+        assertTrue(falsePositives < 100, "Ложных срабатываний: " + falsePositives);
+    }
+
+    @Test
+    void shouldKeepServingOldFilterWhileRebuilding() throws InterruptedException {
+        UserRepository userRepository = mock(UserRepository.class);
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(userRepository.findEmails(any())).thenAnswer(invocation -> {
+            loading.countDown();
+            release.await();
+            return new SliceImpl<>(List.<String>of());
+        });
+        EmailFilter overflowing = new EmailFilter(userRepository);
+
+        try {
+            assertTimeoutPreemptively(Duration.ofSeconds(5),
+                    () -> IntStream.range(0, 2000).forEach(i -> overflowing.add("user" + i + "@mail.com")));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+            IntStream.range(0, 2000).forEach(i -> assertTrue(overflowing.mightContain("user" + i + "@mail.com")));
+        } finally {
+            release.countDown();
+        }
+    }
+}
@@ -6,18 +6,23 @@ import lombok.RequiredArgsConstructor;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.UnavailableDataException;
+import ru.practicum.shareit.item.cache.ItemCache;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 import ru.practicum.shareit.user.service.UserService;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.hibernate.validator.internal.util.Contracts.assertNotNull;
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 
 @Transactional
 @SpringBootTest(
@@ -30,6 +35,8 @@ class UserServiceImplTest {
     private UserService userService;
     @Autowired
     private UserRepository userRepository;
+    @SpyBean
+    private ItemCache itemCache;
 
     @PersistenceContext
     private EntityManager em;
@@ -61,6 +68,17 @@ class UserServiceImplTest {
         assertThrows(UnavailableDataException.class, () -> userService.create(userDto));
     }
 
+    @Test
+    void shouldNotCreateUserIfEmailSavedPastFilter() {
+        userRepository.save(new User(null, "User Name", "Unfiltered@mail.com"));
+
+        UserDto userDto = new UserDto();
+        userDto.setName("Another User Name");
+        userDto.setEmail("Unfiltered@mail.com");
+
+        assertThrows(UnavailableDataException.class, () -> userService.create(userDto));
+    }
+
     @Test
     void shouldUpdateUser() {
         UserDto userDto = new UserDto();
@@ -91,6 +109,34 @@ class UserServiceImplTest {
         assertThrows(NotFoundException.class, () -> userService.update(999L, userDto));
     }
 
+    @Test
+    void shouldClearItemCacheWhenUserRenamed() {
+        UserDto userDto = new UserDto();
+        userDto.setName("User Name");
+        userDto.setEmail("renamed@mail.com");
+        UserDto createdUser = userService.create(userDto);
+
+        UserDto rename = new UserDto();
+        rename.setName("Updated Name");
+        userService.update(createdUser.getId(), rename);
+
+        verify(itemCache).clear();
+    }
+
+    @Test
+    void shouldKeepItemCacheWhenUserNotChanged() {
+        UserDto userDto = new UserDto();
+        userDto.setName("User Name");
+        userDto.setEmail("unchanged@mail.com");
+        UserDto createdUser = userService.create(userDto);
+
+        UserDto sameName = new UserDto();
+        sameName.setName("User Name");
+        userService.update(createdUser.getId(), sameName);
+
+        verify(itemCache, never()).clear();
+    }
+
     @Test
     void shouldGetUser() {
         UserDto userDto = new UserDto();
@@ -148,4 +194,23 @@ class UserServiceImplTest {
 
         assertEquals(2, users.size());
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldExportAllUsersInIdOrder() {
+        UserDto userDto1 = new UserDto();
+        userDto1.setName("User Name");
+        userDto1.setEmail("User@mail.com");
+
+        UserDto userDto2 = new UserDto();
+        userDto2.setName("Another User Name");
+        userDto2.setEmail("AnotherUser@mail.com");
+
+        UserDto createdUser1 = userService.create(userDto1);
+        UserDto createdUser2 = userService.create(userDto2);
+
+        List<UserDto> exported = new ArrayList<>();
+        userService.exportAll(exported::add);
+
+        assertEquals(List.of(createdUser1, createdUser2), exported);
+    }
+}